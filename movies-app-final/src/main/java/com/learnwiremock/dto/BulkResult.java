@@ -0,0 +1,38 @@
+package com.learnwiremock.dto;
+
+import lombok.Value;
+
+/**
+ * Outcome of one item of a bulk call: the key it was requested with (the posted anime or the id),
+ * and either the value the server returned or the reason it has none.
+ */
+@Value
+public class BulkResult<K, V> {
+
+    public enum Status {
+        SUCCESS,
+        NOT_FOUND,
+        FAILED
+    }
+
+    private K key;
+    private Status status;
+    private V value;
+    private Throwable error;
+
+    public static <K, V> BulkResult<K, V> success(K key, V value) {
+        return new BulkResult<>(key, Status.SUCCESS, value, null);
+    }
+
+    public static <K, V> BulkResult<K, V> notFound(K key) {
+        return new BulkResult<>(key, Status.NOT_FOUND, null, null);
+    }
+
+    public static <K, V> BulkResult<K, V> failed(K key, Throwable error) {
+        return new BulkResult<>(key, Status.FAILED, null, error);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+}
@@ -10,7 +10,11 @@ public enum UtilEndpoints {
     PUT_ANIME_BY_ID("/animes/{id}"),
     DELETE_ANIME_BY_ID("/animes/{id}"),
     POST_ANIME("/animes"),
-    DELETE_ANIME_BY_TITLE("/animes/title/{title}");
+    DELETE_ANIME_BY_TITLE("/animes/title/{title}"),
+    // bulk variants: a JSON array in and out for POST, an "ids" query parameter for GET and DELETE
+    POST_ANIMES_BULK("/animes/bulk"),
+    GET_ANIMES_BY_IDS("/animes/bulk"),
+    DELETE_ANIMES_BY_IDS("/animes/bulk");
 
     private final String path;
 
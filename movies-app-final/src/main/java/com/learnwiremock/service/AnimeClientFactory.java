@@ -0,0 +1,312 @@
+package com.learnwiremock.service;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Builds the {@link WebClient} behind {@link AnimeRestClient} on top of one shared, bounded connection pool,
+ * so bursts of requests reuse kept-alive connections instead of opening a new one each.
+ * <p>
+ * A factory owns its pool and event loops: create it once, hand out {@link #animeRestClient()} as often as
+ * needed and {@link #dispose()} it on shutdown.
+ */
+public class AnimeClientFactory implements Disposable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnimeClientFactory.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    public static final int DEFAULT_MAX_PENDING_ACQUIRES = 500;
+    public static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_MAX_IDLE_TIME = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final AttributeKey<Boolean> LEASED = AttributeKey.valueOf("animeClient.leased");
+
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+    private final ConnectionPoolMetrics metrics;
+    private final WebClient webClient;
+    private final AnimeStreamDecoder streamDecoder;
+
+    private AnimeClientFactory(Builder builder) {
+        metrics = new ConnectionPoolMetrics(builder.maxConnections, builder.maxPendingAcquires);
+        streamDecoder = new AnimeStreamDecoder(builder.maxInMemorySize);
+        connectionProvider = ConnectionProvider.fixed(builder.name, builder.maxConnections, builder.acquireTimeout.toMillis());
+        loopResources = LoopResources.create(builder.name, builder.eventLoopThreads, true);
+
+        long maxIdleMillis = builder.maxIdleTime.toMillis();
+        long readTimeoutMillis = builder.readTimeout.toMillis();
+        long writeTimeoutMillis = builder.writeTimeout.toMillis();
+        // one instance for every request: the pool is keyed by the bootstrap handler's hashCode, which
+        // includes this consumer, so a fresh lambda per request would get a fresh pool
+        BiConsumer<ConnectionObserver, Channel> lifecycle = (observer, channel) -> initChannel(channel, maxIdleMillis);
+
+        TcpClient tcpClient = TcpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) builder.connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // installed once per channel, so it keeps watching the connection while it sits in the pool
+                .bootstrap(bootstrap -> BootstrapHandlers.updateConfiguration(bootstrap, "animeClient.lifecycle", lifecycle))
+                .observe(this::onStateChange)
+                // handlers added here are removed again when the connection goes back to the pool
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeoutMillis, TimeUnit.MILLISECONDS)));
+
+        HttpClient httpClient = HttpClient.from(tcpClient)
+                .keepAlive(true)
+                .compress(builder.compression);
+
+        webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(pendingAcquireLimit())
+                .baseUrl(builder.baseUrl)
+                .build();
+    }
+
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    public WebClient webClient() {
+        return webClient;
+    }
+
+    public AnimeRestClient animeRestClient() {
+        return new AnimeRestClient(webClient, streamDecoder);
+    }
+
+    /**
+     * A client that keeps responses for {@code ttl}, up to {@code maxEntries} paths. Each call builds a new cache.
+     */
+    public CachingAnimeRestClient cachingAnimeRestClient(Duration ttl, int maxEntries) {
+        return new CachingAnimeRestClient(webClient, streamDecoder, ttl, maxEntries);
+    }
+
+    public ConnectionPoolMetrics metrics() {
+        return metrics;
+    }
+
+    @Override
+    public void dispose() {
+        connectionProvider.dispose();
+        loopResources.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return connectionProvider.isDisposed();
+    }
+
+    private void initChannel(Channel channel, long maxIdleMillis) {
+        metrics.connectionOpened();
+        channel.closeFuture().addListener(future -> {
+            giveBack(channel);
+            metrics.connectionClosed();
+        });
+        // reactor-netty 0.8 pools have no idle eviction of their own
+        channel.pipeline()
+                .addFirst("animeClient.idleEviction", new IdleEvictionHandler())
+                .addFirst("animeClient.idleState", new IdleStateHandler(0, 0, maxIdleMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void onStateChange(Connection connection, ConnectionObserver.State newState) {
+        if (newState == ConnectionObserver.State.CONNECTED) {
+            lease(connection.channel(), false);
+        } else if (newState == ConnectionObserver.State.ACQUIRED) {
+            lease(connection.channel(), true);
+        } else if (newState == ConnectionObserver.State.RELEASED) {
+            giveBack(connection.channel());
+        }
+    }
+
+    private void lease(Channel channel, boolean reuse) {
+        Boolean wasLeased = channel.attr(LEASED).getAndSet(Boolean.TRUE);
+        if (!Boolean.TRUE.equals(wasLeased)) {
+            metrics.connectionLeased(reuse);
+        }
+    }
+
+    private void giveBack(Channel channel) {
+        Attribute<Boolean> leased = channel.attr(LEASED);
+        if (Boolean.TRUE.equals(leased.getAndSet(Boolean.FALSE))) {
+            metrics.connectionReturned();
+        }
+    }
+
+    /**
+     * Bounds the requests waiting for a connection. The fixed pool in reactor-netty 0.8 queues
+     * acquires without limit and only times them out, so the bound is enforced in front of it.
+     * <p>
+     * A request keeps its slot until the response body has been read, since that is when the
+     * connection goes back to the pool, not when the headers arrive.
+     */
+    private ExchangeFilterFunction pendingAcquireLimit() {
+        return (request, next) -> Mono.defer(() -> {
+            if (!metrics.tryStartExchange()) {
+                LOGGER.warn("Rejecting {} {}: pending-acquire queue is full ({})", request.method(), request.url(), metrics);
+                return Mono.error(new IllegalStateException("Connection pool exhausted: " + metrics.getMaxConnections()
+                        + " connections busy and " + metrics.getMaxPendingAcquires() + " requests already pending"));
+            }
+            AtomicBoolean finished = new AtomicBoolean();
+            Runnable finish = () -> {
+                if (finished.compareAndSet(false, true)) {
+                    metrics.exchangeFinished();
+                }
+            };
+            AtomicBoolean answered = new AtomicBoolean();
+            return next.exchange(request)
+                    .map(response -> {
+                        answered.set(true);
+                        return ClientResponse.from(response)
+                                .body(response.bodyToFlux(DataBuffer.class).doFinally(signal -> finish.run()))
+                                .build();
+                    })
+                    // no response means no body to wait for: failed to connect, timed out or cancelled
+                    .doFinally(signal -> {
+                        if (!answered.get()) {
+                            finish.run();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Closes a connection once nothing has been read or written on it for the configured idle time.
+     */
+    private static class IdleEvictionHandler extends ChannelDuplexHandler {
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt instanceof IdleStateEvent) {
+                LOGGER.debug("Closing idle connection {}", ctx.channel());
+                ctx.close();
+            } else {
+                super.userEventTriggered(ctx, evt);
+            }
+        }
+    }
+
+    public static class Builder {
+        private final String baseUrl;
+        private String name = "anime-client";
+        private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+        private int maxPendingAcquires = DEFAULT_MAX_PENDING_ACQUIRES;
+        private Duration acquireTimeout = DEFAULT_ACQUIRE_TIMEOUT;
+        private Duration maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+        private Duration writeTimeout = DEFAULT_WRITE_TIMEOUT;
+        private int eventLoopThreads = Runtime.getRuntime().availableProcessors();
+        private boolean compression = true;
+        private int maxInMemorySize = AnimeStreamDecoder.DEFAULT_MAX_IN_MEMORY_SIZE;
+
+        private Builder(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder maxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder maxPendingAcquires(int maxPendingAcquires) {
+            this.maxPendingAcquires = maxPendingAcquires;
+            return this;
+        }
+
+        public Builder acquireTimeout(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        public Builder maxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        public Builder eventLoopThreads(int eventLoopThreads) {
+            this.eventLoopThreads = eventLoopThreads;
+            return this;
+        }
+
+        public Builder compression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * The largest single anime, in bytes, that {@link AnimeRestClient#streamAllAnime()} buffers; -1 for no limit.
+         */
+        public Builder maxInMemorySize(int maxInMemorySize) {
+            this.maxInMemorySize = maxInMemorySize;
+            return this;
+        }
+
+        public AnimeClientFactory build() {
+            if (maxConnections < 1) {
+                throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+            }
+            if (maxPendingAcquires < 0) {
+                throw new IllegalArgumentException("maxPendingAcquires must not be negative: " + maxPendingAcquires);
+            }
+            if (eventLoopThreads < 1) {
+                throw new IllegalArgumentException("eventLoopThreads must be positive: " + eventLoopThreads);
+            }
+            // an in-flight request is also "idle" while it waits for the response, so let the read timeout fire first
+            if (maxIdleTime.compareTo(readTimeout) <= 0) {
+                throw new IllegalArgumentException("maxIdleTime " + maxIdleTime + " must be longer than readTimeout " + readTimeout);
+            }
+            return new AnimeClientFactory(this);
+        }
+    }
+}
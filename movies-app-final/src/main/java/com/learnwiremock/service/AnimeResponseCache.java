@@ -0,0 +1,93 @@
+package com.learnwiremock.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bounded map from an endpoint path to its last response, least recently used first.
+ * Expired entries are kept until they are evicted, so their validators can still be sent
+ * in a conditional request.
+ */
+class AnimeResponseCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final CacheMetrics metrics;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // bumped by every invalidation, so a response fetched before it is never stored after it
+    private long generation;
+
+    AnimeResponseCache(long ttlNanos, int maxEntries, CacheMetrics metrics) {
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+        this.metrics = metrics;
+    }
+
+    synchronized Entry get(String path) {
+        return entries.get(path);
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Stores a response unless the cache has been invalidated since {@code generation} was read.
+     */
+    synchronized void put(String path, Object value, String eTag, long lastModified, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        entries.put(path, new Entry(value, eTag, lastModified, System.nanoTime() + ttlNanos));
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+            metrics.evicted();
+        }
+    }
+
+    synchronized void invalidate(String path) {
+        generation++;
+        if (entries.remove(path) != null) {
+            metrics.invalidated(1);
+        }
+    }
+
+    synchronized void invalidateIf(Predicate<Object> matchesValue) {
+        generation++;
+        int removed = 0;
+        for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            if (matchesValue.test(it.next().getValue().value)) {
+                it.remove();
+                removed++;
+            }
+        }
+        metrics.invalidated(removed);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    static final class Entry {
+        final Object value;
+        final String eTag;
+        final long lastModified;
+        final long expiresAt;
+
+        Entry(Object value, String eTag, long lastModified, long expiresAt) {
+            this.value = value;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - expiresAt < 0;
+        }
+    }
+}
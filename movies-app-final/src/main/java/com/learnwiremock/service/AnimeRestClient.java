@@ -1,21 +1,35 @@
 package com.learnwiremock.service;
 
 import com.learnwiremock.dto.Anime;
+import com.learnwiremock.dto.BulkResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static com.learnwiremock.endpoints.UtilEndpoints.*;
 
 public class AnimeRestClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnimeRestClient.class);
-    private WebClient webClient;
+    protected final WebClient webClient;
+    private AnimeStreamDecoder streamDecoder;
 
     public AnimeRestClient(WebClient webClient) {
+        this(webClient, new AnimeStreamDecoder());
+    }
+
+    public AnimeRestClient(WebClient webClient, AnimeStreamDecoder streamDecoder) {
         this.webClient = webClient;
+        this.streamDecoder = streamDecoder;
     }
 
     public Flux<Anime> getAllAnime() {
@@ -27,6 +41,21 @@ public class AnimeRestClient {
                 .doOnError(Exception.class, e -> LOGGER.error("Error retrieving all animes", e));
     }
 
+    /**
+     * Like {@link #getAllAnime()}, but emits each anime as soon as it has been read, without ever holding the
+     * whole catalog in memory. Accepts a JSON array as well as newline-delimited JSON.
+     */
+    public Flux<Anime> streamAllAnime() {
+        return webClient.get()
+                .uri(GET_ALL_ANIME.getPath())
+                .accept(MediaType.APPLICATION_STREAM_JSON, new MediaType("application", "x-ndjson"), MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .transform(streamDecoder::decode)
+                .doOnError(WebClientResponseException.class, e -> LOGGER.error("WebClient response error: Status {}, Body {}", e.getRawStatusCode(), e.getResponseBodyAsString(), e))
+                .doOnError(Exception.class, e -> LOGGER.error("Error streaming all animes", e));
+    }
+
     public Mono<Anime> getAnimeById(Integer id) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder.path(GET_ANIME_BY_ID.getPath()).build(id))
@@ -74,4 +103,127 @@ public class AnimeRestClient {
                 .doOnError(WebClientResponseException.class, e -> LOGGER.error("WebClient response error: Status {}, Body {}", e.getRawStatusCode(), e.getResponseBodyAsString(), e))
                 .doOnError(Exception.class, e -> LOGGER.error("Error deleting anime by title: {}", title, e));
     }
+
+    public Flux<BulkResult<Anime, Anime>> postAnimes(Flux<Anime> animes) {
+        return postAnimes(animes, BulkOptions.DEFAULTS);
+    }
+
+    /**
+     * Posts the animes in batches, with one result per anime. A batch that fails reports each of its
+     * animes as failed, and the other batches carry on.
+     */
+    public Flux<BulkResult<Anime, Anime>> postAnimes(Flux<Anime> animes, BulkOptions options) {
+        return animes.bufferTimeout(options.getBatchSize(), options.getWindow())
+                // bufferTimeout cannot hold a batch back, so queue the ones closed while every slot is busy
+                .onBackpressureBuffer()
+                .flatMap(this::postBatch, options.getConcurrency());
+    }
+
+    public Flux<BulkResult<Integer, Anime>> getAnimesByIds(Collection<Integer> ids) {
+        return getAnimesByIds(ids, BulkOptions.DEFAULTS);
+    }
+
+    /**
+     * Fetches the animes in batches, with one result per distinct id: the anime, or NOT_FOUND when the
+     * server did not return it.
+     */
+    public Flux<BulkResult<Integer, Anime>> getAnimesByIds(Collection<Integer> ids, BulkOptions options) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .bufferTimeout(options.getBatchSize(), options.getWindow())
+                .onBackpressureBuffer()
+                .flatMap(this::getBatch, options.getConcurrency());
+    }
+
+    public Flux<BulkResult<Integer, Integer>> deleteAnimesByIds(Collection<Integer> ids) {
+        return deleteAnimesByIds(ids, BulkOptions.DEFAULTS);
+    }
+
+    /**
+     * Deletes the animes in batches, with one result per distinct id: SUCCESS when the server reports
+     * it deleted, NOT_FOUND otherwise.
+     */
+    public Flux<BulkResult<Integer, Integer>> deleteAnimesByIds(Collection<Integer> ids, BulkOptions options) {
+        return Flux.fromIterable(ids)
+                .distinct()
+                .bufferTimeout(options.getBatchSize(), options.getWindow())
+                .onBackpressureBuffer()
+                .flatMap(this::deleteBatch, options.getConcurrency());
+    }
+
+    private Flux<BulkResult<Anime, Anime>> postBatch(List<Anime> batch) {
+        return webClient.post()
+                .uri(POST_ANIMES_BULK.getPath())
+                .syncBody(batch)
+                .retrieve()
+                .bodyToFlux(Anime.class)
+                .collectList()
+                .map(saved -> {
+                    // the server answers with the saved animes in the order they were posted
+                    List<BulkResult<Anime, Anime>> results = new ArrayList<>(batch.size());
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (i < saved.size()) {
+                            results.add(BulkResult.success(batch.get(i), saved.get(i)));
+                        } else {
+                            results.add(BulkResult.failed(batch.get(i), new IllegalStateException("Server saved only " + saved.size() + " of " + batch.size() + " animes")));
+                        }
+                    }
+                    return results;
+                })
+                .doOnError(WebClientResponseException.class, e -> LOGGER.error("WebClient response error: Status {}, Body {}", e.getRawStatusCode(), e.getResponseBodyAsString(), e))
+                .doOnError(Exception.class, e -> LOGGER.error("Error posting a batch of {} animes", batch.size(), e))
+                .onErrorResume(e -> Mono.just(AnimeRestClient.<Anime, Anime>failAll(batch, e)))
+                .flatMapIterable(results -> results);
+    }
+
+    private Flux<BulkResult<Integer, Anime>> getBatch(List<Integer> batch) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path(GET_ANIMES_BY_IDS.getPath()).queryParam("ids", joinIds(batch)).build())
+                .retrieve()
+                .bodyToFlux(Anime.class)
+                .collectMap(Anime::getId)
+                .map(found -> {
+                    List<BulkResult<Integer, Anime>> results = new ArrayList<>(batch.size());
+                    for (Integer id : batch) {
+                        Anime anime = found.get(id);
+                        results.add(anime != null ? BulkResult.success(id, anime) : BulkResult.notFound(id));
+                    }
+                    return results;
+                })
+                .doOnError(WebClientResponseException.class, e -> LOGGER.error("WebClient response error: Status {}, Body {}", e.getRawStatusCode(), e.getResponseBodyAsString(), e))
+                .doOnError(Exception.class, e -> LOGGER.error("Error retrieving animes by IDs: {}", batch, e))
+                .onErrorResume(e -> Mono.just(AnimeRestClient.<Integer, Anime>failAll(batch, e)))
+                .flatMapIterable(results -> results);
+    }
+
+    private Flux<BulkResult<Integer, Integer>> deleteBatch(List<Integer> batch) {
+        return webClient.delete()
+                .uri(uriBuilder -> uriBuilder.path(DELETE_ANIMES_BY_IDS.getPath()).queryParam("ids", joinIds(batch)).build())
+                .retrieve()
+                .bodyToFlux(Integer.class)
+                .collect(Collectors.toSet())
+                .map(deleted -> {
+                    List<BulkResult<Integer, Integer>> results = new ArrayList<>(batch.size());
+                    for (Integer id : batch) {
+                        results.add(deleted.contains(id) ? BulkResult.success(id, id) : BulkResult.notFound(id));
+                    }
+                    return results;
+                })
+                .doOnError(WebClientResponseException.class, e -> LOGGER.error("WebClient response error: Status {}, Body {}", e.getRawStatusCode(), e.getResponseBodyAsString(), e))
+                .doOnError(Exception.class, e -> LOGGER.error("Error deleting animes by IDs: {}", batch, e))
+                .onErrorResume(e -> Mono.just(AnimeRestClient.<Integer, Integer>failAll(batch, e)))
+                .flatMapIterable(results -> results);
+    }
+
+    private static <K, V> List<BulkResult<K, V>> failAll(List<K> batch, Throwable error) {
+        List<BulkResult<K, V>> results = new ArrayList<>(batch.size());
+        for (K key : batch) {
+            results.add(BulkResult.failed(key, error));
+        }
+        return results;
+    }
+
+    private static String joinIds(List<Integer> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
 }
@@ -0,0 +1,171 @@
+package com.learnwiremock.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.learnwiremock.dto.Anime;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a response body into {@link Anime} objects token by token, with Jackson's non-blocking parser.
+ * The body may be one top-level JSON array or a sequence of root objects (application/x-ndjson,
+ * application/stream+json). Each element is emitted as soon as its closing brace has arrived, and only
+ * the element being parsed is held in memory, never the whole body.
+ */
+public class AnimeStreamDecoder {
+
+    public static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final int maxInMemorySize;
+
+    public AnimeStreamDecoder() {
+        this(DEFAULT_MAX_IN_MEMORY_SIZE);
+    }
+
+    /**
+     * @param maxInMemorySize the largest single element, in bytes, that may be buffered; -1 for no limit.
+     */
+    public AnimeStreamDecoder(int maxInMemorySize) {
+        this(Jackson2ObjectMapperBuilder.json().build(), maxInMemorySize);
+    }
+
+    public AnimeStreamDecoder(ObjectMapper objectMapper, int maxInMemorySize) {
+        this.objectMapper = objectMapper;
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    public int getMaxInMemorySize() {
+        return maxInMemorySize;
+    }
+
+    public Flux<Anime> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            Tokenizer tokenizer = new Tokenizer();
+            return body.concatMap(tokenizer::feed)
+                    .concatWith(Flux.defer(tokenizer::endOfInput))
+                    .doFinally(signal -> tokenizer.close());
+        });
+    }
+
+    /**
+     * Parsing state for one response body.
+     */
+    private class Tokenizer {
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        private boolean inTopLevelArray;
+        private TokenBuffer element;
+        private int depth;
+        private long elementStart;
+
+        Tokenizer() {
+            try {
+                parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create a non-blocking JSON parser", e);
+            }
+            feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        Flux<Anime> feed(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            List<Anime> animes = new ArrayList<>();
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                parseAvailable(animes);
+            } catch (IOException | DecodingException e) {
+                // the elements completed before the failure still go out first
+                return Flux.fromIterable(animes).concatWith(Flux.error(decodingError(e)));
+            }
+            return Flux.fromIterable(animes);
+        }
+
+        Flux<Anime> endOfInput() {
+            List<Anime> animes = new ArrayList<>();
+            try {
+                feeder.endOfInput();
+                parseAvailable(animes);
+                if (element != null) {
+                    throw new DecodingException("Response ended inside an anime element");
+                }
+            } catch (IOException | DecodingException e) {
+                return Flux.fromIterable(animes).concatWith(Flux.error(decodingError(e)));
+            }
+            return Flux.fromIterable(animes);
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing is left to read
+            }
+        }
+
+        private void parseAvailable(List<Anime> animes) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (element == null) {
+                    if (token == JsonToken.START_ARRAY && !inTopLevelArray) {
+                        inTopLevelArray = true;
+                        continue;
+                    }
+                    if (token == JsonToken.END_ARRAY && inTopLevelArray) {
+                        inTopLevelArray = false;
+                        continue;
+                    }
+                    element = new TokenBuffer(parser);
+                    elementStart = parser.getTokenLocation().getByteOffset();
+                    depth = 0;
+                }
+
+                element.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+
+                if (depth == 0) {
+                    animes.add(objectMapper.readValue(element.asParser(objectMapper), Anime.class));
+                    element = null;
+                } else {
+                    checkElementSize();
+                }
+            }
+            // a long string or number is held in the parser until it ends, so check what was fed so far as well
+            if (element != null) {
+                checkElementSize();
+            }
+        }
+
+        private Throwable decodingError(Exception e) {
+            return e instanceof DecodingException ? e : new DecodingException("JSON decoding error: " + e.getMessage(), e);
+        }
+
+        private void checkElementSize() {
+            if (maxInMemorySize < 0) {
+                return;
+            }
+            long buffered = parser.getCurrentLocation().getByteOffset() - elementStart;
+            if (buffered > maxInMemorySize) {
+                throw new DecodingException("Anime element exceeds the limit of " + maxInMemorySize
+                        + " bytes buffered in memory");
+            }
+        }
+    }
+}
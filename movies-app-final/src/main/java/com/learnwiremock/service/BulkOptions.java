@@ -0,0 +1,27 @@
+package com.learnwiremock.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Micro-batching for the bulk calls on {@link AnimeRestClient}: items are grouped until {@code batchSize}
+ * are collected or {@code window} has passed since the first one, and at most {@code concurrency}
+ * batches are on the wire at once.
+ */
+@Value
+@Builder
+public class BulkOptions {
+
+    public static final BulkOptions DEFAULTS = BulkOptions.builder().build();
+
+    @Builder.Default
+    private int batchSize = 100;
+
+    @Builder.Default
+    private Duration window = Duration.ofMillis(50);
+
+    @Builder.Default
+    private int concurrency = 4;
+}
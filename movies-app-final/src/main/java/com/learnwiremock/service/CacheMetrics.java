@@ -0,0 +1,99 @@
+package com.learnwiremock.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for a {@link CachingAnimeRestClient}. Every lookup is exactly one of a hit, a coalesced call
+ * (it joined a request already in flight for the same path) or a miss (it went over the network).
+ */
+public class CacheMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Misses the server answered with 304 Not Modified, so the cached body was reused without transfer.
+     */
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    /**
+     * Entries dropped to stay within the size bound.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Entries dropped because a write went to the server.
+     */
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public long getRequests() {
+        return getHits() + getCoalesced() + getMisses();
+    }
+
+    /**
+     * Share of lookups answered from the cache, without a network call of their own.
+     */
+    public double getHitRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0.0 : (double) (getHits() + getCoalesced()) / requests;
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void coalesced() {
+        coalesced.increment();
+    }
+
+    void revalidated() {
+        revalidations.increment();
+    }
+
+    void evicted() {
+        evictions.increment();
+    }
+
+    void invalidated(int entries) {
+        invalidations.add(entries);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheMetrics{" +
+                "hits=" + getHits() +
+                ", coalesced=" + getCoalesced() +
+                ", misses=" + getMisses() +
+                ", revalidations=" + getRevalidations() +
+                ", evictions=" + getEvictions() +
+                ", invalidations=" + getInvalidations() +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                '}';
+    }
+}
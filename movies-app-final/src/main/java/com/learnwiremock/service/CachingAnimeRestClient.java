@@ -0,0 +1,226 @@
+package com.learnwiremock.service;
+
+import com.learnwiremock.dto.Anime;
+import com.learnwiremock.dto.BulkResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static com.learnwiremock.endpoints.UtilEndpoints.*;
+
+/**
+ * {@link AnimeRestClient} that answers {@link #getAllAnime()} and {@link #getAnimeById(Integer)} from a bounded
+ * in-memory cache keyed by endpoint path.
+ * <p>
+ * A fresh entry is served without a network call. A stale one is revalidated with If-None-Match /
+ * If-Modified-Since, so an unchanged resource costs a 304 instead of a body. Concurrent misses for the
+ * same path share one request. Updates and deletes through this client invalidate what they touch.
+ */
+public class CachingAnimeRestClient extends AnimeRestClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingAnimeRestClient.class);
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final CacheMetrics metrics = new CacheMetrics();
+    private final AnimeResponseCache cache;
+    private final ConcurrentMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    public CachingAnimeRestClient(WebClient webClient) {
+        this(webClient, DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingAnimeRestClient(WebClient webClient, Duration ttl, int maxEntries) {
+        this(webClient, new AnimeStreamDecoder(), ttl, maxEntries);
+    }
+
+    public CachingAnimeRestClient(WebClient webClient, AnimeStreamDecoder streamDecoder, Duration ttl, int maxEntries) {
+        super(webClient, streamDecoder);
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.cache = new AnimeResponseCache(ttl.toNanos(), maxEntries, metrics);
+    }
+
+    public CacheMetrics getCacheMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Flux<Anime> getAllAnime() {
+        return this.<List<Anime>>cached(GET_ALL_ANIME.getPath(), response -> response.toEntityList(Anime.class))
+                .flatMapIterable(animes -> {
+                    List<Anime> copies = new ArrayList<>(animes.size());
+                    for (Anime anime : animes) {
+                        copies.add(copy(anime));
+                    }
+                    return copies;
+                })
+                .doOnError(WebClientResponseException.class, e -> LOGGER.error("WebClient response error: Status {}, Body {}", e.getRawStatusCode(), e.getResponseBodyAsString(), e))
+                .doOnError(Exception.class, e -> LOGGER.error("Error retrieving all animes", e));
+    }
+
+    @Override
+    public Mono<Anime> getAnimeById(Integer id) {
+        return this.<Anime>cached(GET_ANIME_BY_ID.withId(id), response -> response.toEntity(Anime.class))
+                .map(CachingAnimeRestClient::copy)
+                .doOnError(WebClientResponseException.class, e -> LOGGER.error("WebClient response error: Status {}, Body {}", e.getRawStatusCode(), e.getResponseBodyAsString(), e))
+                .doOnError(Exception.class, e -> LOGGER.error("Error retrieving anime by ID: {}", id, e));
+    }
+
+    @Override
+    public Mono<Anime> postNewAnime(Anime newAnime) {
+        return invalidating(super.postNewAnime(newAnime), () -> invalidate(GET_ALL_ANIME.getPath()));
+    }
+
+    @Override
+    public Mono<Anime> updateExistingAnime(Integer animeId, Anime anime) {
+        return invalidating(super.updateExistingAnime(animeId, anime), () -> {
+            invalidate(GET_ANIME_BY_ID.withId(animeId));
+            invalidate(GET_ALL_ANIME.getPath());
+        });
+    }
+
+    @Override
+    public Mono<String> deleteAnimeById(Integer animeId) {
+        return invalidating(super.deleteAnimeById(animeId), () -> {
+            invalidate(GET_ANIME_BY_ID.withId(animeId));
+            invalidate(GET_ALL_ANIME.getPath());
+        });
+    }
+
+    @Override
+    public Mono<String> deleteAnimeByTitle(String title) {
+        return invalidating(super.deleteAnimeByTitle(title), () -> {
+            // the id behind the title is unknown, so drop every cached anime carrying it
+            cache.invalidateIf(value -> value instanceof Anime && Objects.equals(((Anime) value).getTitle(), title));
+            inFlight.clear();
+            invalidate(GET_ALL_ANIME.getPath());
+        });
+    }
+
+    @Override
+    public Flux<BulkResult<Anime, Anime>> postAnimes(Flux<Anime> animes, BulkOptions options) {
+        return super.postAnimes(animes, options)
+                .doOnNext(result -> invalidate(GET_ALL_ANIME.getPath()));
+    }
+
+    @Override
+    public Flux<BulkResult<Integer, Integer>> deleteAnimesByIds(Collection<Integer> ids, BulkOptions options) {
+        // failed items are dropped too, since the server may have deleted them anyway
+        return super.deleteAnimesByIds(ids, options)
+                .doOnNext(result -> {
+                    invalidate(GET_ANIME_BY_ID.withId(result.getKey()));
+                    invalidate(GET_ALL_ANIME.getPath());
+                });
+    }
+
+    /**
+     * Serves {@code path} from the cache while it is fresh, otherwise joins or starts the request for it.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> cached(String path, Function<ClientResponse, Mono<ResponseEntity<T>>> body) {
+        return Mono.defer(() -> {
+            AnimeResponseCache.Entry entry = cache.get(path);
+            if (entry != null && entry.isFresh()) {
+                metrics.hit();
+                return Mono.just((T) entry.value);
+            }
+
+            Mono<?> running = inFlight.get(path);
+            if (running != null) {
+                metrics.coalesced();
+                return (Mono<T>) running;
+            }
+
+            AtomicReference<Mono<T>> self = new AtomicReference<>();
+            Mono<T> shared = fetch(path, entry, body)
+                    .doFinally(signal -> inFlight.remove(path, self.get()))
+                    .cache();
+            self.set(shared);
+            running = inFlight.putIfAbsent(path, shared);
+            if (running != null) {
+                metrics.coalesced();
+                return (Mono<T>) running;
+            }
+            metrics.miss();
+            return shared;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> fetch(String path, AnimeResponseCache.Entry stale, Function<ClientResponse, Mono<ResponseEntity<T>>> body) {
+        long generation = cache.generation();
+        // exchange() rather than retrieve(): Spring 5.1's ResponseSpec has no toEntity, and the 304 needs the status
+        return webClient.get()
+                .uri(path)
+                .headers(headers -> {
+                    if (stale != null && stale.eTag != null) {
+                        headers.setIfNoneMatch(stale.eTag);
+                    }
+                    if (stale != null && stale.lastModified >= 0) {
+                        headers.setIfModifiedSince(stale.lastModified);
+                    }
+                })
+                .exchange()
+                .flatMap(response -> response.statusCode().isError() ? CachingAnimeRestClient.<ResponseEntity<T>>error(response) : body.apply(response))
+                .flatMap(entity -> {
+                    HttpHeaders headers = entity.getHeaders();
+                    if (entity.getStatusCode() == HttpStatus.NOT_MODIFIED && stale != null) {
+                        metrics.revalidated();
+                        String eTag = headers.getETag() != null ? headers.getETag() : stale.eTag;
+                        long lastModified = headers.getLastModified() >= 0 ? headers.getLastModified() : stale.lastModified;
+                        cache.put(path, stale.value, eTag, lastModified, generation);
+                        return Mono.just((T) stale.value);
+                    }
+                    if (entity.getBody() == null) {
+                        return Mono.empty();
+                    }
+                    cache.put(path, entity.getBody(), headers.getETag(), headers.getLastModified(), generation);
+                    return Mono.just(entity.getBody());
+                });
+    }
+
+    // the same exception retrieve() would have raised, so callers see no difference from AnimeRestClient
+    private static <T> Mono<T> error(ClientResponse response) {
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> Mono.error(WebClientResponseException.create(response.rawStatusCode(), response.statusCode().getReasonPhrase(),
+                        response.headers().asHttpHeaders(), bytes, response.headers().contentType().map(MediaType::getCharset).orElse(null))));
+    }
+
+    private void invalidate(String path) {
+        cache.invalidate(path);
+        inFlight.remove(path);
+    }
+
+    // runs before the caller sees the result, so a read straight after a write never gets the old value
+    private static <T> Mono<T> invalidating(Mono<T> write, Runnable invalidation) {
+        return write
+                .doOnSuccess(result -> invalidation.run())
+                .doOnError(e -> invalidation.run());
+    }
+
+    // cached instances are shared, so callers get their own mutable copy
+    private static Anime copy(Anime anime) {
+        return new Anime(anime.getId(), anime.getTitle(), anime.getRating(), anime.getMaincharacter(), anime.getDescription());
+    }
+}
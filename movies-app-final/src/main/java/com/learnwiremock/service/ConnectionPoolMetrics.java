@@ -0,0 +1,138 @@
+package com.learnwiremock.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters for the connection pool behind an {@link AnimeClientFactory}.
+ * reactor-netty 0.8 does not publish pool gauges itself, so the factory feeds these from the
+ * channel lifecycle (open / close) and the pool's connection states (lease / release).
+ */
+public class ConnectionPoolMetrics {
+
+    private final int maxConnections;
+    private final int maxPendingAcquires;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ConnectionPoolMetrics(int maxConnections, int maxPendingAcquires) {
+        this.maxConnections = maxConnections;
+        this.maxPendingAcquires = maxPendingAcquires;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxPendingAcquires() {
+        return maxPendingAcquires;
+    }
+
+    /**
+     * Connections currently open, whether leased to a request or idle in the pool.
+     */
+    public long getOpenConnections() {
+        return opened.sum() - closed.sum();
+    }
+
+    public int getActiveConnections() {
+        return active.get();
+    }
+
+    public long getIdleConnections() {
+        return Math.max(0, getOpenConnections() - getActiveConnections());
+    }
+
+    /**
+     * Requests that have been sent to the pool but have not got a connection yet.
+     */
+    public int getPendingAcquires() {
+        return Math.max(0, inFlight.get() - active.get());
+    }
+
+    public long getTotalConnectionsOpened() {
+        return opened.sum();
+    }
+
+    public long getTotalConnectionsClosed() {
+        return closed.sum();
+    }
+
+    /**
+     * Every lease, including the first one of each new connection.
+     */
+    public long getTotalAcquired() {
+        return acquired.sum();
+    }
+
+    /**
+     * Leases that were served by a kept-alive connection instead of a new one.
+     */
+    public long getReusedAcquisitions() {
+        return reused.sum();
+    }
+
+    /**
+     * Requests turned away because the pending-acquire queue was full.
+     */
+    public long getRejectedRequests() {
+        return rejected.sum();
+    }
+
+    void connectionOpened() {
+        opened.increment();
+    }
+
+    void connectionClosed() {
+        closed.increment();
+    }
+
+    void connectionLeased(boolean reuse) {
+        acquired.increment();
+        if (reuse) {
+            reused.increment();
+        }
+        active.incrementAndGet();
+    }
+
+    void connectionReturned() {
+        active.decrementAndGet();
+    }
+
+    /**
+     * Claims a slot for a new exchange, or returns false when every connection is busy and the
+     * pending-acquire queue is already full.
+     */
+    boolean tryStartExchange() {
+        if (inFlight.incrementAndGet() > maxConnections + maxPendingAcquires) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    void exchangeFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolMetrics{" +
+                "open=" + getOpenConnections() +
+                ", active=" + getActiveConnections() +
+                ", idle=" + getIdleConnections() +
+                ", pending=" + getPendingAcquires() +
+                ", max=" + maxConnections +
+                ", acquired=" + getTotalAcquired() +
+                ", reused=" + getReusedAcquisitions() +
+                ", rejected=" + getRejectedRequests() +
+                '}';
+    }
+}
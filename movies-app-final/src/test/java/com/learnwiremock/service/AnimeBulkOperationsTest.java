@@ -0,0 +1,194 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.dto.Anime;
+import com.learnwiremock.dto.BulkResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.learnwiremock.endpoints.UtilEndpoints.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class AnimeBulkOperationsTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnimeBulkOperationsTest.class);
+
+    AnimeClientFactory factory;
+    AnimeRestClient animeRestClient;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(false))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        int port = wireMockServer.port();
+        String baseUrl = String.format("http://localhost:%s/", port);
+        factory = AnimeClientFactory.builder(baseUrl).build();
+        animeRestClient = factory.animeRestClient();
+    }
+
+    @Test
+    void postAnimesSendsOneRequestPerBatch() throws InterruptedException {
+        stubBulkPost(0);
+        BulkOptions bulkOptions = BulkOptions.builder().batchSize(100).window(Duration.ofSeconds(1)).build();
+
+        List<BulkResult<Anime, Anime>> results = collect(animeRestClient.postAnimes(animes(250), bulkOptions));
+
+        assertEquals(250, results.size());
+        assertTrue(results.stream().allMatch(BulkResult::isSuccess), "Every anime should be saved");
+        verify(3, postRequestedFor(urlPathEqualTo(POST_ANIMES_BULK.getPath())));
+    }
+
+    @Test
+    void pacedSourceOutrunsSlowBatches() throws InterruptedException {
+        stubBulkPost(300);
+        BulkOptions bulkOptions = BulkOptions.builder().batchSize(5).window(Duration.ofMillis(20)).concurrency(1).build();
+
+        // batches keep closing while the only in-flight one waits on the server
+        List<BulkResult<Anime, Anime>> results = collect(animeRestClient.postAnimes(
+                animes(40).delayElements(Duration.ofMillis(5)), bulkOptions));
+
+        assertEquals(40, results.size());
+        assertTrue(results.stream().allMatch(BulkResult::isSuccess), "Every anime should be saved");
+    }
+
+    @Test
+    void failedBatchReportsEachItem() throws InterruptedException {
+        stubFor(post(urlPathEqualTo(POST_ANIMES_BULK.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("404-error.json")));
+
+        List<BulkResult<Anime, Anime>> results = collect(animeRestClient.postAnimes(animes(10)));
+
+        assertEquals(10, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BulkResult.Status.FAILED));
+    }
+
+    @Test
+    void getAnimesByIdsReportsMissingIds() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(GET_ANIMES_BY_IDS.getPath())).withQueryParam("ids", equalTo("1,2,3")).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("[{\"id\":1,\"title\":\"Naruto\"},{\"id\":2,\"title\":\"Bleach\"}]")));
+
+        List<BulkResult<Integer, Anime>> results = collect(animeRestClient.getAnimesByIds(Arrays.asList(1, 2, 3)));
+
+        assertEquals(3, results.size());
+        assertEquals("Bleach", results.get(1).getValue().getTitle());
+        assertEquals(BulkResult.Status.NOT_FOUND, results.get(2).getStatus());
+    }
+
+    @Test
+    void deleteAnimesByIdsReportsEachId() throws InterruptedException {
+        stubFor(delete(urlPathEqualTo(DELETE_ANIMES_BY_IDS.getPath())).withQueryParam("ids", equalTo("4,5")).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("[4]")));
+
+        List<BulkResult<Integer, Integer>> results = collect(animeRestClient.deleteAnimesByIds(Arrays.asList(4, 5, 4)));
+
+        assertEquals(2, results.size(), "Duplicate ids are deleted once");
+        assertEquals(BulkResult.Status.SUCCESS, results.get(0).getStatus());
+        assertEquals(BulkResult.Status.NOT_FOUND, results.get(1).getStatus());
+    }
+
+    @Test
+    void batchedImportSendsOneRequestPerBatch() throws InterruptedException {
+        int count = 100;
+        stubFor(post(urlPathEqualTo(POST_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("post-anime.json")
+                        .withFixedDelay(20)));
+        stubBulkPost(20);
+
+        long start = System.nanoTime();
+        List<Anime> saved = collect(animes(count).concatMap(animeRestClient::postNewAnime));
+        long oneByOneNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<BulkResult<Anime, Anime>> results = collect(animeRestClient.postAnimes(animes(count),
+                BulkOptions.builder().batchSize(25).concurrency(4).build()));
+        long batchedNanos = System.nanoTime() - start;
+
+        LOGGER.info("{} animes: one by one {} ms, batched {} ms", count, oneByOneNanos / 1_000_000, batchedNanos / 1_000_000);
+        assertEquals(count, saved.size());
+        assertEquals(count, results.size());
+        verify(count, postRequestedFor(urlPathEqualTo(POST_ANIME.getPath())));
+        verify(count / 25, postRequestedFor(urlPathEqualTo(POST_ANIMES_BULK.getPath())));
+    }
+
+    private static void stubBulkPost(int delayMillis) {
+        // the bulk endpoint answers with the saved animes, in the order they were posted
+        stubFor(post(urlPathEqualTo(POST_ANIMES_BULK.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("{{{request.body}}}")
+                        .withFixedDelay(delayMillis)));
+    }
+
+    private static Flux<Anime> animes(int count) {
+        return Flux.range(0, count).map(i -> Anime.builder()
+                .title("Anime " + i)
+                .rating(8.0)
+                .maincharacter("Hero " + i)
+                .description("It is long story")
+                .build());
+    }
+
+    private static <T> List<T> collect(Flux<T> flux) throws InterruptedException {
+        List<T> items = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        flux.subscribe(
+                items::add,
+                error -> {
+                    LOGGER.error("Bulk call failed", error);
+                    latch.countDown();
+                },
+                latch::countDown
+        );
+        latch.await();
+        return items;
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.dispose();
+    }
+}
@@ -0,0 +1,178 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.learnwiremock.endpoints.UtilEndpoints.GET_ALL_ANIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class AnimeClientFactoryTest {
+
+    AnimeClientFactory factory;
+    String baseUrl;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        int port = wireMockServer.port();
+        baseUrl = String.format("http://localhost:%s/", port);
+    }
+
+    @Test
+    void burstsReusePooledConnections() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("all-anime.json")));
+        factory = AnimeClientFactory.builder(baseUrl).maxConnections(2).build();
+        AnimeRestClient animeRestClient = factory.animeRestClient();
+
+        for (int burst = 0; burst < 3; burst++) {
+            AtomicInteger lists = new AtomicInteger(0);
+            CountDownLatch latch = new CountDownLatch(1);
+
+            Flux.range(0, 10)
+                    .flatMap(i -> animeRestClient.getAllAnime().collectList())
+                    .subscribe(
+                            animes -> lists.getAndIncrement(),
+                            error -> latch.countDown(),
+                            latch::countDown
+                    );
+
+            latch.await();
+            assertEquals(10, lists.get(), "Every request of the burst should succeed");
+        }
+
+        ConnectionPoolMetrics metrics = factory.metrics();
+        assertTrue(metrics.getTotalConnectionsOpened() <= 2, "The pool should never open more than 2 connections: " + metrics);
+        assertTrue(metrics.getReusedAcquisitions() > 0, "Later requests should reuse kept-alive connections: " + metrics);
+        assertEquals(0, metrics.getRejectedRequests());
+    }
+
+    @Test
+    void rejectsRequestsBeyondThePendingQueue() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("all-anime.json")
+                        .withFixedDelay(1000)));
+        factory = AnimeClientFactory.builder(baseUrl).maxConnections(1).maxPendingAcquires(1).build();
+        AnimeRestClient animeRestClient = factory.animeRestClient();
+
+        AtomicInteger succeeded = new AtomicInteger(0);
+        AtomicInteger rejected = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(5);
+
+        for (int i = 0; i < 5; i++) {
+            animeRestClient.getAllAnime().collectList().subscribe(
+                    animes -> {
+                        succeeded.getAndIncrement();
+                        latch.countDown();
+                    },
+                    error -> {
+                        if (error instanceof IllegalStateException) {
+                            rejected.getAndIncrement();
+                        }
+                        latch.countDown();
+                    }
+            );
+        }
+
+        latch.await();
+        assertEquals(2, succeeded.get(), "One request on the connection and one waiting for it");
+        assertEquals(3, rejected.get(), "The rest should be turned away without waiting");
+        assertEquals(3, factory.metrics().getRejectedRequests());
+    }
+
+    @Test
+    void slowBodyKeepsItsSlot() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("all-anime.json")
+                        .withChunkedDribbleDelay(10, 3000)));
+        factory = AnimeClientFactory.builder(baseUrl).maxConnections(1).maxPendingAcquires(0).build();
+        AnimeRestClient animeRestClient = factory.animeRestClient();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        animeRestClient.getAllAnime().collectList().subscribe(animes -> latch.countDown(), error -> latch.countDown());
+        // the headers are in by now, the body is still on its way
+        Thread.sleep(1000);
+        animeRestClient.getAllAnime().collectList().subscribe(
+                animes -> latch.countDown(),
+                error -> {
+                    failure.set(error);
+                    latch.countDown();
+                }
+        );
+
+        latch.await();
+        assertTrue(failure.get() instanceof IllegalStateException, "The connection is still busy reading the first body: " + failure.get());
+        assertEquals(1, factory.metrics().getRejectedRequests());
+        assertEquals(0, factory.metrics().getPendingAcquires());
+    }
+
+    @Test
+    void readTimeoutFailsTheRequest() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(ok().withFixedDelay(3000)));
+        factory = AnimeClientFactory.builder(baseUrl).readTimeout(Duration.ofMillis(500)).build();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        factory.animeRestClient().getAllAnime().subscribe(
+                anime -> {},
+                error -> {
+                    failure.set(error);
+                    latch.countDown();
+                },
+                latch::countDown
+        );
+
+        latch.await();
+        assertTrue(failure.get() instanceof ReadTimeoutException, "Expected a read timeout but got " + failure.get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (factory != null) {
+            factory.dispose();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.learnwiremock.dto.Anime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.learnwiremock.endpoints.UtilEndpoints.GET_ALL_ANIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(WireMockExtension.class)
+public class AnimeStreamingTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnimeStreamingTest.class);
+
+    AnimeClientFactory factory;
+    String baseUrl;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            // no response templating: rendering the benchmark's catalog would dominate what it measures
+            .notifier(new ConsoleNotifier(false));
+
+    @BeforeEach
+    void setUp() {
+        int port = wireMockServer.port();
+        baseUrl = String.format("http://localhost:%s/", port);
+    }
+
+    @Test
+    void decodesArraySplitAtEveryByte() {
+        byte[] json = "[{\"id\":1,\"title\":\"Naruto\",\"rating\":8.5},{\"id\":2,\"title\":\"Bleach\",\"rating\":7.9}]"
+                .getBytes(StandardCharsets.UTF_8);
+        DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (byte b : json) {
+            chunks.add(bufferFactory.wrap(new byte[]{b}));
+        }
+
+        List<Anime> animes = new AnimeStreamDecoder().decode(Flux.fromIterable(chunks)).collectList().block();
+
+        assertEquals(2, animes.size());
+        assertEquals("Naruto", animes.get(0).getTitle());
+        assertEquals(2, animes.get(1).getId());
+    }
+
+    @Test
+    void streamsTopLevelArray() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("all-anime.json")));
+        factory = AnimeClientFactory.builder(baseUrl).build();
+
+        AtomicInteger count = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        factory.animeRestClient().streamAllAnime().subscribe(
+                anime -> count.getAndIncrement(),
+                error -> latch.countDown(),
+                latch::countDown
+        );
+
+        latch.await();
+        assertTrue(count.get() > 0, "The anime list should not be empty");
+    }
+
+    @Test
+    void streamsNdjson() throws InterruptedException {
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, "application/x-ndjson")
+                        .withBody("{\"id\":1,\"title\":\"Naruto\"}\n{\"id\":2,\"title\":\"Bleach\"}\n{\"id\":3,\"title\":\"One Piece\"}\n")));
+        factory = AnimeClientFactory.builder(baseUrl).build();
+
+        List<String> titles = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        factory.animeRestClient().streamAllAnime().subscribe(
+                anime -> titles.add(anime.getTitle()),
+                error -> latch.countDown(),
+                latch::countDown
+        );
+
+        latch.await();
+        assertEquals(3, titles.size());
+        assertEquals("One Piece", titles.get(2));
+    }
+
+    @Test
+    void elementLargerThanMaxInMemorySizeFails() throws InterruptedException {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 4096; i++) {
+            description.append("long story ");
+        }
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("[{\"id\":1,\"title\":\"Short\"},{\"id\":2,\"description\":\"" + description + "\"}]")));
+        factory = AnimeClientFactory.builder(baseUrl).maxInMemorySize(16 * 1024).build();
+
+        AtomicInteger count = new AtomicInteger(0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        factory.animeRestClient().streamAllAnime().subscribe(
+                anime -> count.getAndIncrement(),
+                error -> {
+                    failure.set(error);
+                    latch.countDown();
+                },
+                latch::countDown
+        );
+
+        latch.await();
+        assertEquals(1, count.get(), "The element before the oversized one should still be emitted");
+        assertTrue(failure.get() instanceof DecodingException, "Expected a DecodingException but got " + failure.get());
+    }
+
+    @Test
+    void oversizedValueFailsBeforeItEnds() {
+        byte[] story = new byte[1024];
+        Arrays.fill(story, (byte) 'a');
+        DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+        List<DataBuffer> chunks = new ArrayList<>();
+        chunks.add(bufferFactory.wrap("[{\"id\":1,\"description\":\"".getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i < 256; i++) {
+            chunks.add(bufferFactory.wrap(story));
+        }
+        AtomicInteger fed = new AtomicInteger(0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // the description never ends, so no token completes that could trigger the check
+        new AnimeStreamDecoder(16 * 1024).decode(Flux.fromIterable(chunks).doOnNext(chunk -> fed.getAndIncrement()))
+                .subscribe(anime -> {}, failure::set);
+
+        assertTrue(failure.get() instanceof DecodingException, "Expected a DecodingException but got " + failure.get());
+        assertTrue(failure.get().getMessage().contains("exceeds the limit"), failure.get().getMessage());
+        assertTrue(fed.get() < chunks.size(), "Decoding should stop before the whole body is read, fed " + fed.get());
+    }
+
+    /**
+     * Time-to-first-element and peak heap of getAllAnime against streamAllAnime for a catalog of 1M entries.
+     * Run with {@code gradle test -Danime.benchmark=true --tests '*AnimeStreamingTest'}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "anime.benchmark", matches = "true")
+    void benchmarkLargeCatalog() throws InterruptedException {
+        int entries = 1_000_000;
+        StringBuilder body = new StringBuilder(entries * 120).append('[');
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(i)
+                    .append(",\"title\":\"Anime ").append(i)
+                    .append("\",\"rating\":8.5,\"maincharacter\":\"Hero ").append(i)
+                    .append("\",\"description\":\"A long story about hero number ").append(i).append("\"}");
+        }
+        body.append(']');
+        stubFor(get(urlPathEqualTo(GET_ALL_ANIME.getPath())).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(body.toString())));
+        factory = AnimeClientFactory.builder(baseUrl)
+                .readTimeout(Duration.ofSeconds(60))
+                .maxIdleTime(Duration.ofSeconds(120))
+                .build();
+        AnimeRestClient animeRestClient = factory.animeRestClient();
+
+        for (int round = 0; round < 2; round++) {
+            measure("getAllAnime", animeRestClient.getAllAnime(), entries);
+            measure("streamAllAnime", animeRestClient.streamAllAnime(), entries);
+        }
+    }
+
+    private static void measure(String name, Flux<Anime> animes, int expected) throws InterruptedException {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        AtomicInteger count = new AtomicInteger(0);
+        AtomicLong firstElementNanos = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        animes.subscribe(
+                anime -> {
+                    if (count.getAndIncrement() == 0) {
+                        firstElementNanos.set(System.nanoTime() - start);
+                    }
+                },
+                error -> {
+                    LOGGER.error("{} failed", name, error);
+                    latch.countDown();
+                },
+                latch::countDown
+        );
+
+        latch.await();
+        long totalNanos = System.nanoTime() - start;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        LOGGER.info("{}: {} animes, first after {} ms, all after {} ms, peak heap {} MB",
+                name, count.get(), firstElementNanos.get() / 1_000_000, totalNanos / 1_000_000, peakHeap >> 20);
+        assertEquals(expected, count.get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (factory != null) {
+            factory.dispose();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.learnwiremock.service;
+
+import com.github.jenspiegsa.wiremockextension.ConfigureWireMock;
+import com.github.jenspiegsa.wiremockextension.InjectServer;
+import com.github.jenspiegsa.wiremockextension.WireMockExtension;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.ConsoleNotifier;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.learnwiremock.dto.Anime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(WireMockExtension.class)
+public class CachingAnimeRestClientTest {
+
+    AnimeClientFactory factory;
+
+    @InjectServer
+    WireMockServer wireMockServer;
+
+    @ConfigureWireMock
+    Options options = wireMockConfig()
+            .port(8088)
+            .notifier(new ConsoleNotifier(true))
+            .extensions(new ResponseTemplateTransformer(true));
+
+    @BeforeEach
+    void setUp() {
+        int port = wireMockServer.port();
+        String baseUrl = String.format("http://localhost:%s/", port);
+        factory = AnimeClientFactory.builder(baseUrl).build();
+    }
+
+    @Test
+    void freshEntryIsServedFromCache() throws InterruptedException {
+        stubSingleAnime(0);
+        CachingAnimeRestClient animeRestClient = factory.cachingAnimeRestClient(Duration.ofMinutes(1), 10);
+
+        assertEquals("Naruto", titleOf(animeRestClient, 1));
+        assertEquals("Naruto", titleOf(animeRestClient, 1));
+
+        verify(1, getRequestedFor(urlPathEqualTo("/animes/1")));
+        assertEquals(1, animeRestClient.getCacheMetrics().getHits());
+        assertEquals(1, animeRestClient.getCacheMetrics().getMisses());
+    }
+
+    @Test
+    void staleEntryIsRevalidatedWithEtag() throws InterruptedException {
+        stubSingleAnime(0);
+        stubFor(get(urlPathEqualTo("/animes/1"))
+                .withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\""))
+                .atPriority(1)
+                .willReturn(aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+        CachingAnimeRestClient animeRestClient = factory.cachingAnimeRestClient(Duration.ofMillis(100), 10);
+
+        assertEquals("Naruto", titleOf(animeRestClient, 1));
+        Thread.sleep(200);
+        assertEquals("Naruto", titleOf(animeRestClient, 1));
+
+        verify(1, getRequestedFor(urlPathEqualTo("/animes/1")).withHeader(HttpHeaders.IF_NONE_MATCH, equalTo("\"v1\"")));
+        assertEquals(1, animeRestClient.getCacheMetrics().getRevalidations());
+    }
+
+    @Test
+    void concurrentMissesShareOneRequest() throws InterruptedException {
+        stubSingleAnime(500);
+        CachingAnimeRestClient animeRestClient = factory.cachingAnimeRestClient(Duration.ofMinutes(1), 10);
+
+        AtomicInteger count = new AtomicInteger(0);
+        CountDownLatch latch = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            animeRestClient.getAnimeById(1).subscribe(
+                    anime -> {
+                        count.getAndIncrement();
+                        latch.countDown();
+                    },
+                    error -> latch.countDown()
+            );
+        }
+
+        latch.await();
+        assertEquals(10, count.get());
+        verify(1, getRequestedFor(urlPathEqualTo("/animes/1")));
+        assertEquals(9, animeRestClient.getCacheMetrics().getCoalesced());
+    }
+
+    @Test
+    void updateInvalidatesCachedAnime() throws InterruptedException {
+        stubSingleAnime(0);
+        stubFor(put(urlPathMatching("/animes/[0-9]+")).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withBodyFile("update-anime.json")));
+        CachingAnimeRestClient animeRestClient = factory.cachingAnimeRestClient(Duration.ofMinutes(1), 10);
+
+        titleOf(animeRestClient, 3);
+        CountDownLatch latch = new CountDownLatch(1);
+        animeRestClient.updateExistingAnime(3, new Anime(3, "One Piece", 9, "King", "The quest continues.")).subscribe(
+                anime -> latch.countDown(),
+                error -> latch.countDown()
+        );
+        latch.await();
+        titleOf(animeRestClient, 3);
+
+        verify(2, getRequestedFor(urlPathEqualTo("/animes/3")));
+        assertEquals(1, animeRestClient.getCacheMetrics().getInvalidations());
+    }
+
+    private static void stubSingleAnime(int delayMillis) {
+        stubFor(get(urlPathMatching("/animes/[0-9]+")).willReturn(
+                aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .withHeader(HttpHeaders.ETAG, "\"v1\"")
+                        .withBodyFile("single-anime.json")
+                        .withFixedDelay(delayMillis)));
+    }
+
+    private static String titleOf(AnimeRestClient animeRestClient, int id) throws InterruptedException {
+        AtomicReference<String> title = new AtomicReference<>("");
+        CountDownLatch latch = new CountDownLatch(1);
+        animeRestClient.getAnimeById(id).subscribe(
+                anime -> {
+                    title.set(anime.getTitle());
+                    latch.countDown();
+                },
+                error -> latch.countDown()
+        );
+        latch.await();
+        return title.get();
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.dispose();
+    }
+}
@@ -1,5 +1,9 @@
 package com.demo.folder.bad_version;
 
+import com.demo.folder.collections.OffHeapLongWindow;
+import com.demo.folder.metrics.StageMetrics;
+import com.demo.folder.profiling.MatchFoundEvent;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,11 +12,13 @@ public class CombinedNumbersTask implements Runnable {
 	private FibonnaciNumbersTask fibonnaciNumbersTask;
 	private PrimeNumbersTask primeNumbersTask;
 	
-	private List<Integer> primes = new ArrayList<Integer>();
-	private List<Integer> fibonnacis = new ArrayList<Integer>();
+	//only the numbers that can still match, both inputs arrive in increasing order so everything else is dropped
+	private OffHeapLongWindow primes = new OffHeapLongWindow();
+	private OffHeapLongWindow fibonnacis = new OffHeapLongWindow();
 	private List<Integer> combined = new ArrayList<Integer>();
 	
 	private Boolean finished;
+	private StageMetrics metrics = new StageMetrics("combined");
 	
 	public void taskComplete() {
 		finished = true;
@@ -36,6 +42,10 @@ public class CombinedNumbersTask implements Runnable {
 		this.primeNumbersTask = primeNumbersTask;
 	}
 	
+	public void setMetrics(StageMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public int getSize() {
 		synchronized (this) {
 			if (combined == null) return 0;
@@ -44,20 +54,34 @@ public class CombinedNumbersTask implements Runnable {
 	}
 
 
+	//anything in the other window below this number can only have matched an earlier one of ours, and if the
+	//other window reaches past it, this number has already met everything it could match
+	private void accept(long number, OffHeapLongWindow own, OffHeapLongWindow other) {
+		if (other.contains(number)) {
+			synchronized (this) {
+				combined.add((int) number);
+			}
+			metrics.recordGenerated();
+			MatchFoundEvent.emit(number);
+		}
+		other.dropBelow(number);
+		if (other.isEmpty()) own.append(number);
+	}
+
 	@Override
 	public void run() {
 		finished = false;
+		metrics.started();
 		
 		while (!finished) {
+			long start = System.nanoTime();
 			Integer prime = primeNumbersTask.getNextNumber();
-			if (prime != null) primes.add(prime);
+			if (prime != null) accept(prime, primes, fibonnacis);
 			Integer fib = fibonnaciNumbersTask.getNextNumber();
-			if (fib != null) fibonnacis.add(fib);
+			if (fib != null) accept(fib, fibonnacis, primes);
 			
-			synchronized (this) {
-				combined = new ArrayList<>(primes);
-				combined.retainAll(fibonnacis);				
-			}
+			//a pass that took nothing from either queue was spent waiting, however busy it kept the cpu
+			if (prime == null && fib == null) metrics.recordIdle(System.nanoTime() - start);
 
 		}
 		
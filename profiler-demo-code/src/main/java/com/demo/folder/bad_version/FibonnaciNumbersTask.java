@@ -1,5 +1,7 @@
 package com.demo.folder.bad_version;
 
+import com.demo.folder.metrics.StageMetrics;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -7,6 +9,11 @@ public class FibonnaciNumbersTask implements Runnable {
 
 	private List<Integer> fibonnacis = new ArrayList<Integer>();
 	private Boolean finished;
+	private StageMetrics metrics = new StageMetrics("fibonnacis");
+
+	public void setMetrics(StageMetrics metrics) {
+		this.metrics = metrics;
+	}
 
 	public void taskComplete() {
 		finished = true;
@@ -31,6 +38,7 @@ public class FibonnaciNumbersTask implements Runnable {
 	@Override
 	public void run() {
 		finished = false;
+		metrics.started();
 		int a = 0;
 		int b = 1;
 
@@ -38,6 +46,7 @@ public class FibonnaciNumbersTask implements Runnable {
 			fibonnacis.add(a);
 			fibonnacis.add(b);
 		}
+		metrics.recordGenerated(2);
 
 		while (!finished) {
 			//only the add really needs to be synchronized.
@@ -45,8 +54,14 @@ public class FibonnaciNumbersTask implements Runnable {
 			synchronized (this) {
 				//we need to stop the fibonnaci numbers growing too quickly so we'll pause if there are > 100 waiting to be collected
 				if (fibonnacis.size() < 100) {
+					//F(47) no longer fits in an int, stop rather than hand out overflowed garbage
+					if (b > Integer.MAX_VALUE - a) {
+						finished = true;
+						break;
+					}
 					int c = a+b;
 					fibonnacis.add(c);
+					metrics.recordGenerated();
 					a = b;
 					b = c;
 				}
@@ -1,26 +1,39 @@
 package com.demo.folder.bad_version;
 
+import com.demo.folder.concurrent.ExecutionMode;
+import com.demo.folder.metrics.MetricsReporter;
+import com.demo.folder.metrics.StageMetrics;
+import com.demo.folder.primes.PrimeEngine;
+
+import java.util.concurrent.ExecutorService;
+
 public class Main {
 
 	public static void main(String[] args) throws InterruptedException {
 		int target = 100;
+		MetricsReporter reporter = new MetricsReporter("bad", MetricsReporter.reportSecondsFromArgs(args));
+		ExecutorService executor = ExecutionMode.fromArgs(args).newExecutor(ExecutionMode.poolSizeFromArgs(args, 3));
 		
 		PrimeNumbersTask primeNumbersTask = new PrimeNumbersTask();
-		Thread primesGeneratorThread = new Thread(primeNumbersTask);
-		primesGeneratorThread.start();
-		primesGeneratorThread.setName("primesGeneratorThread");
+		primeNumbersTask.setEngine(PrimeEngine.fromArgs(args));
+		primeNumbersTask.setParallelism(PrimeEngine.parallelismFromArgs(args));
+		StageMetrics primeMetrics = reporter.stage("primes");
+		primeMetrics.setQueueDepth(primeNumbersTask::getSize);
+		primeNumbersTask.setMetrics(primeMetrics);
+		executor.execute(ExecutionMode.named("primesGeneratorThread", primeNumbersTask));
 		
 		FibonnaciNumbersTask fibonnaciNumbersTask = new FibonnaciNumbersTask();
-		Thread fibonnaciNumbersThread = new Thread(fibonnaciNumbersTask);
-		fibonnaciNumbersThread.setName("fibonnaciNumbersThread");
-		fibonnaciNumbersThread.start();
+		StageMetrics fibonnaciMetrics = reporter.stage("fibonnacis");
+		fibonnaciMetrics.setQueueDepth(fibonnaciNumbersTask::getSize);
+		fibonnaciNumbersTask.setMetrics(fibonnaciMetrics);
+		executor.execute(ExecutionMode.named("fibonnaciNumbersThread", fibonnaciNumbersTask));
 		
 		CombinedNumbersTask combinedNumbersTask = new CombinedNumbersTask();
 		combinedNumbersTask.setPrimeNumbersTask(primeNumbersTask);
 		combinedNumbersTask.setFibonnaciNumbersTask(fibonnaciNumbersTask);
-		Thread combinedNumbersThread = new Thread(combinedNumbersTask);
-		combinedNumbersThread.start();
-		combinedNumbersThread.setName("combinedNumbersThread");
+		combinedNumbersTask.setMetrics(reporter.stage("combined"));
+		reporter.start();
+		executor.execute(ExecutionMode.named("combinedNumbersThread", combinedNumbersTask));
 		
 		int combined = 0;
 		int iterations = 0;
@@ -41,6 +54,9 @@ public class Main {
 				Thread.sleep(1000);
 			}
 		}
+		executor.shutdown();
+		reporter.report();
+		reporter.close();
 		System.out.println("Job done  - found " + combined + ".");
 		if (combined > 0) combinedNumbersTask.printCombinedNumbers();
 	}
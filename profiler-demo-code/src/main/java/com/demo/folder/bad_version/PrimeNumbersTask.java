@@ -1,5 +1,11 @@
 package com.demo.folder.bad_version;
 
+import com.demo.folder.metrics.StageMetrics;
+import com.demo.folder.primes.MillerRabinChecker;
+import com.demo.folder.primes.PrimeBatchSource;
+import com.demo.folder.primes.PrimeEngine;
+import com.demo.folder.profiling.PrimeFoundEvent;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,19 +14,55 @@ public class PrimeNumbersTask implements Runnable {
 	private List<Integer> primes = new ArrayList<Integer>();
 	private Integer lastNumberChecked;
 	private NumberChecker checker;
+	private MillerRabinChecker millerRabinChecker;
+	private PrimeEngine engine = PrimeEngine.TRIAL_DIVISION;
+	private int parallelism = 1;
+	private PrimeBatchSource batchSource;
 	private Boolean finished;
+	private StageMetrics metrics = new StageMetrics("primes");
 
 	private void generateNextPrime() {
 
 		//only the add really needs to be synchronized
 		synchronized (this) {
 			Integer testNumber = lastNumberChecked + 1;
-			while (!checker.isPrime(testNumber)) {
+			while (!isPrime(testNumber)) {
 				testNumber++;
 			}
 			lastNumberChecked = testNumber;
 			primes.add(testNumber);
+			metrics.recordGenerated();
+		}
+		PrimeFoundEvent.emit(lastNumberChecked, 1);
+	}
+
+	private Boolean isPrime(Integer testNumber) {
+		if (millerRabinChecker != null) return millerRabinChecker.isPrime(testNumber);
+		return checker.isPrime(testNumber);
+	}
+
+	private void generateNextSegment() {
+		//sieve outside the lock, then publish the whole segment in one go
+		List<Integer> batch = new ArrayList<Integer>();
+		batchSource.nextBatch(prime -> batch.add((int) prime));
+		synchronized (this) {
+			primes.addAll(batch);
+			metrics.recordGenerated(batch.size());
+			lastNumberChecked = (int) (batchSource.upperBound() - 1);
 		}
+		if (!batch.isEmpty()) PrimeFoundEvent.emit(batch.get(batch.size() - 1), batch.size());
+	}
+
+	public void setEngine(PrimeEngine engine) {
+		this.engine = engine;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public void setMetrics(StageMetrics metrics) {
+		this.metrics = metrics;
 	}
 
 	public void taskComplete() {
@@ -45,7 +87,18 @@ public class PrimeNumbersTask implements Runnable {
 	@Override
 	public void run() {
 		finished = false;
+		metrics.started();
+		if (engine.isBatched()) {
+			batchSource = engine.newBatchSource(parallelism);
+			while (!finished) {
+				generateNextSegment();
+			}
+			batchSource.close();
+			return;
+		}
+
 		checker= new NumberChecker();
+		if (engine == PrimeEngine.MILLER_RABIN) millerRabinChecker = new MillerRabinChecker();
 		synchronized (this) {
 			primes.add(2);
 		}
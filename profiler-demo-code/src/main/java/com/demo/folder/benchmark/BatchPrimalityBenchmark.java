@@ -0,0 +1,64 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.primes.MillerRabinChecker;
+import com.demo.folder.primes.PrimalityChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Miller-Rabin over a block of consecutive odd candidates, one {@code isPrime} call per number against a single
+ * {@code checkAll} call for the block. Divide the score by {@code batchSize} for the cost per number.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchPrimalityBenchmark {
+
+	@Param({"8", "64", "512", "4096", "65536"})
+	public int batchSize;
+
+	@Param({"1000000000", "1000000000000000"})
+	public long start;
+
+	private final PrimalityChecker checker = new MillerRabinChecker();
+	private long[] candidates;
+	private BitSet primes;
+
+	@Setup
+	public void setUp() {
+		candidates = new long[batchSize];
+		for (int i = 0; i < batchSize; i++) {
+			candidates[i] = (start | 1) + 2L * i;
+		}
+		primes = new BitSet(batchSize);
+	}
+
+	@Benchmark
+	public BitSet oneAtATime() {
+		for (int i = 0; i < candidates.length; i++) {
+			primes.set(i, checker.isPrime(candidates[i]));
+		}
+		return primes;
+	}
+
+	@Benchmark
+	public BitSet checkAll() {
+		checker.checkAll(candidates, primes);
+		return primes;
+	}
+}
@@ -0,0 +1,66 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.primes.CachingPrimalityChecker;
+import com.demo.folder.primes.PrimalityChecker;
+import com.demo.folder.primes.PrimalityStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two threads counting the primes in the same {@link PrimalityBenchmark#WINDOW} over and over, as the
+ * microbenchmarks in test.Main do, straight through the strategy or through one shared caching decorator.
+ * The first window at 10^6 is answered from the cache's bitmap, the one at 10^12 from its LRU.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(2)
+@State(Scope.Benchmark)
+public class CachedPrimalityBenchmark {
+
+	@Param({"SQRT_TRIAL_DIVISION", "MILLER_RABIN"})
+	public PrimalityStrategy strategy;
+
+	@Param({"false", "true"})
+	public boolean cached;
+
+	@Param({"1000000", "1000000000000"})
+	public long start;
+
+	private PrimalityChecker checker;
+
+	@Setup
+	public void setUp() {
+		checker = cached ? new CachingPrimalityChecker(strategy) : strategy;
+	}
+
+	@TearDown
+	public void report() {
+		if (cached) System.out.println("cache: " + checker);
+	}
+
+	@Benchmark
+	public int countPrimes() {
+		int count = 0;
+		long end = start + PrimalityBenchmark.WINDOW;
+		for (long n = start; n < end; n++) {
+			if (checker.isPrime(n)) count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,47 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.sequence.FibonnaciSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reaching F(n) by streaming every term against jumping straight to it with fast doubling.
+ * Terms up to F(92) are longs, so the smallest size measures the table path.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FibonnaciBenchmark {
+
+	@Param({"90", "1000", "10000", "100000"})
+	public int n;
+
+	@Benchmark
+	public BigInteger streamToTerm() {
+		FibonnaciSequence sequence = new FibonnaciSequence();
+		BigInteger term = null;
+		for (int i = 0; i <= n; i++) {
+			term = sequence.next();
+		}
+		return term;
+	}
+
+	@Benchmark
+	public BigInteger fastDoubling() {
+		return FibonnaciSequence.fib(n);
+	}
+}
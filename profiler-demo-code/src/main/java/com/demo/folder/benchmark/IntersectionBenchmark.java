@@ -0,0 +1,48 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.sequence.KWayIntersection;
+import com.demo.folder.sequence.NumberSequence;
+import com.demo.folder.sequence.SequenceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Joins the first {@code ways} of primes, fibonnaci, squares, triangular and lucas numbers below
+ * {@link #LIMIT}. The primes dominate the number of terms read, so the change with k is mostly the
+ * O(log k) heap step per term, plus the cost of the extra sequences themselves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntersectionBenchmark {
+
+	public static final long LIMIT = 10000000;
+
+	@Param({"1", "2", "3", "4", "5"})
+	public int ways;
+
+	@Benchmark
+	public int join() {
+		NumberSequence[] all = NumberSequence.values();
+		SequenceGenerator[] sources = new SequenceGenerator[ways];
+		for (int i = 0; i < ways; i++) sources[i] = all[i].newGenerator().upTo(LIMIT);
+
+		KWayIntersection intersection = new KWayIntersection(sources);
+		int matches = 0;
+		while (intersection.nextTerm() != SequenceGenerator.END) matches++;
+		return matches;
+	}
+}
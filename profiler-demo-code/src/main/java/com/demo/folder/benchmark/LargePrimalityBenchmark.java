@@ -0,0 +1,46 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.primes.PrimalityStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Like {@link PrimalityBenchmark} but far up the number line, where only the root-bounded wheel is
+ * still usable as a baseline for Miller-Rabin.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LargePrimalityBenchmark {
+
+	public static final int WINDOW = 256;
+
+	@Param({"WHEEL_6K", "MILLER_RABIN"})
+	public PrimalityStrategy strategy;
+
+	@Param({"1000000000", "1000000000000", "1000000000000000"})
+	public long start;
+
+	@Benchmark
+	public int countPrimes() {
+		int count = 0;
+		long end = start + WINDOW;
+		for (long n = start; n < end; n++) {
+			if (strategy.isPrime(n)) count++;
+		}
+		return count;
+	}
+}
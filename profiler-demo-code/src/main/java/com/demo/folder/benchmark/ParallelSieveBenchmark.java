@@ -0,0 +1,48 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.primes.ParallelPrimeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to stream every prime below {@link #LIMIT}, in order, at each parallelism.
+ * {@code test.ParallelScalingReport} runs this from 1 to N cores and prints the speed-up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSieveBenchmark {
+
+	public static final long LIMIT = 200000000L;
+
+	@Param({"1", "2", "4", "8"})
+	public int parallelism;
+
+	private long count;
+
+	@Benchmark
+	public long primesBelowLimit() {
+		count = 0;
+		try (ParallelPrimeGenerator generator = new ParallelPrimeGenerator(parallelism)) {
+			while (generator.upperBound() < LIMIT) {
+				generator.nextBatch(prime -> {
+					if (prime < LIMIT) count++;
+				});
+			}
+		}
+		return count;
+	}
+}
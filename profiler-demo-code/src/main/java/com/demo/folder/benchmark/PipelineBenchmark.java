@@ -0,0 +1,129 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.reactive_version.CombinedNumbersFlux;
+import com.demo.folder.reactive_version.FibonnaciNumbersFlux;
+import com.demo.folder.reactive_version.PrimeNumbersFlux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from starting a whole pipeline to its first {@code matches} prime fibonnaci numbers, for the
+ * thread-based versions and the Flux one. {@code matches = 1} is the latency to the first match, and
+ * {@code matches = 8} (up to 28657) is dominated by how fast the pipeline moves numbers through.
+ * All use trial division, since bad_version can't keep up with a sieve.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+	@Param({"bad", "good", "reactive"})
+	public String version;
+
+	@Param({"1", "8"})
+	public int matches;
+
+	private Scheduler scheduler;
+
+	@Setup
+	public void setUp() {
+		scheduler = Schedulers.newParallel("pipeline", 2);
+	}
+
+	@TearDown
+	public void tearDown() {
+		scheduler.dispose();
+	}
+
+	@Benchmark
+	public int firstMatches() throws InterruptedException {
+		switch (version) {
+			case "bad":
+				return bad();
+			case "good":
+				return good();
+			default:
+				return reactive();
+		}
+	}
+
+	private int bad() throws InterruptedException {
+		com.demo.folder.bad_version.PrimeNumbersTask primes = new com.demo.folder.bad_version.PrimeNumbersTask();
+		com.demo.folder.bad_version.FibonnaciNumbersTask fibonnacis = new com.demo.folder.bad_version.FibonnaciNumbersTask();
+		com.demo.folder.bad_version.CombinedNumbersTask combined = new com.demo.folder.bad_version.CombinedNumbersTask();
+		combined.setPrimeNumbersTask(primes);
+		combined.setFibonnaciNumbersTask(fibonnacis);
+		Thread[] threads = start(primes, fibonnacis, combined);
+
+		int size;
+		while ((size = combined.getSize()) < matches) {
+			Thread.yield();
+		}
+
+		primes.taskComplete();
+		fibonnacis.taskComplete();
+		combined.taskComplete();
+		join(threads);
+		return size;
+	}
+
+	private int good() throws InterruptedException {
+		com.demo.folder.good_version.PrimeNumbersTask primes = new com.demo.folder.good_version.PrimeNumbersTask();
+		com.demo.folder.good_version.FibonnaciNumbersTask fibonnacis = new com.demo.folder.good_version.FibonnaciNumbersTask();
+		com.demo.folder.good_version.CombinedNumbersTask combined = new com.demo.folder.good_version.CombinedNumbersTask();
+		combined.setPrimeNumbersTask(primes);
+		combined.setFibonnaciNumbersTask(fibonnacis);
+		Thread[] threads = start(primes, fibonnacis, combined);
+
+		int size = combined.awaitSize(matches, 1, TimeUnit.MINUTES);
+
+		primes.taskComplete();
+		fibonnacis.taskComplete();
+		combined.taskComplete();
+		join(threads);
+		return size;
+	}
+
+	private int reactive() {
+		PrimeNumbersFlux primes = new PrimeNumbersFlux();
+		primes.setScheduler(scheduler);
+		CombinedNumbersFlux combined = new CombinedNumbersFlux();
+		combined.setPrimeNumbersFlux(primes);
+		combined.setFibonnaciNumbersFlux(new FibonnaciNumbersFlux());
+		combined.setScheduler(scheduler);
+
+		//cancelling after the last match stops both generators
+		return combined.flux().take(matches).count().block().intValue();
+	}
+
+	private static Thread[] start(Runnable... tasks) {
+		Thread[] threads = new Thread[tasks.length];
+		for (int i = 0; i < tasks.length; i++) {
+			threads[i] = new Thread(tasks[i]);
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+		return threads;
+	}
+
+	private static void join(Thread[] threads) throws InterruptedException {
+		for (Thread thread : threads) thread.join();
+	}
+}
@@ -0,0 +1,89 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.concurrent.ExecutionMode;
+import com.demo.folder.good_version.Pipeline;
+import com.demo.folder.primes.PrimeEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link #PIPELINES} independent good_version pipelines, each sieving its own range of {@link #RANGE}
+ * numbers, and reports pipelines per second for each execution mode. Thread-per-task modes start them
+ * all at once; the fixed pool can only run {@code cores} of them at a time (see {@link ExecutionMode}).
+ * Run with {@code -prof gc}: {@code gc.alloc.rate.norm} is then the heap allocated per pipeline. Platform
+ * thread stacks are native memory on top of that.
+ * The virtual mode needs a Java 21 JVM.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineExecutorBenchmark {
+
+	public static final int PIPELINES = 256;
+	public static final long RANGE = 100000;
+
+	@Param({"platform", "virtual", "pool"})
+	public String mode;
+
+	private ExecutorService executor;
+	private int inFlight;
+
+	@Setup
+	public void setUp() {
+		int cores = Runtime.getRuntime().availableProcessors();
+		ExecutionMode executionMode = ExecutionMode.forName(mode);
+		executor = executionMode.newExecutor(cores * Pipeline.TASKS);
+		inFlight = executionMode == ExecutionMode.FIXED_POOL ? cores : PIPELINES;
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PIPELINES)
+	public int pipelines() throws InterruptedException {
+		Queue<Pipeline> running = new ArrayDeque<Pipeline>();
+		int next = 0;
+		int matches = 0;
+		while (next < PIPELINES || !running.isEmpty()) {
+			//every pipeline does the same amount of work, so waiting for the oldest is as good as waiting for any
+			if (next < PIPELINES && running.size() < inFlight) {
+				running.add(start(next++));
+				continue;
+			}
+			Pipeline pipeline = running.remove();
+			if (!pipeline.awaitDone(1, TimeUnit.MINUTES)) throw new IllegalStateException("pipeline did not finish");
+			matches += pipeline.getCombinedNumbersTask().getSize();
+		}
+		return matches;
+	}
+
+	private Pipeline start(int index) {
+		Pipeline pipeline = new Pipeline();
+		pipeline.getPrimeNumbersTask().setEngine(PrimeEngine.SEGMENTED_SIEVE);
+		pipeline.getPrimeNumbersTask().setRange(index * RANGE, (index + 1) * RANGE);
+		pipeline.start(executor);
+		return pipeline;
+	}
+}
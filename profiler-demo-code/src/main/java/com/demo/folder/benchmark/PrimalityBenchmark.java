@@ -0,0 +1,46 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.primes.PrimalityStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the primes in a window of {@link #WINDOW} numbers starting at {@code start}, one candidate at a time.
+ * {@link SieveBenchmark} sieves the same windows, so the scores are directly comparable.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimalityBenchmark {
+
+	public static final int WINDOW = 4096;
+
+	@Param({"TRIAL_DIVISION", "SQRT_TRIAL_DIVISION", "WHEEL_6K", "MILLER_RABIN"})
+	public PrimalityStrategy strategy;
+
+	@Param({"1000", "100000", "1000000"})
+	public long start;
+
+	@Benchmark
+	public int countPrimes() {
+		int count = 0;
+		long end = start + WINDOW;
+		for (long n = start; n < end; n++) {
+			if (strategy.isPrime(n)) count++;
+		}
+		return count;
+	}
+}
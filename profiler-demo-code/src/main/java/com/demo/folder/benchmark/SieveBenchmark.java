@@ -0,0 +1,48 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.primes.SegmentedSieve;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sieves the same windows as {@link PrimalityBenchmark}, including building the base primes each time.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SieveBenchmark {
+
+	//odd-only, so one bit per two numbers
+	private static final int SEGMENT_BYTES = PrimalityBenchmark.WINDOW / 16;
+
+	@Param({"1000", "100000", "1000000"})
+	public long start;
+
+	private int count;
+
+	@Benchmark
+	public int countPrimes() {
+		long end = start + PrimalityBenchmark.WINDOW;
+		count = 0;
+		SegmentedSieve sieve = new SegmentedSieve(start, SEGMENT_BYTES);
+		while (sieve.upperBound() < end) {
+			sieve.nextSegment(prime -> {
+				if (prime < end) count++;
+			});
+		}
+		return count;
+	}
+}
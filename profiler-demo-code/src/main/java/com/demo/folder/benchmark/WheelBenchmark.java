@@ -0,0 +1,68 @@
+package com.demo.folder.benchmark;
+
+import com.demo.folder.primes.PrimalityStrategy;
+import com.demo.folder.primes.Wheel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the primes in the same windows as {@link PrimalityBenchmark}, but only checks the candidates a wheel
+ * lets through. The {@code checks} and {@code windows} counters give the calls that reached the checker per window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WheelBenchmark {
+
+	@Param({"NONE", "MOD_30", "MOD_210"})
+	public Wheel wheel;
+
+	@Param({"SQRT_TRIAL_DIVISION", "MILLER_RABIN"})
+	public PrimalityStrategy strategy;
+
+	@Param({"1000", "100000", "1000000"})
+	public long start;
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Checks {
+		public long checks;
+		public long windows;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			checks = 0;
+			windows = 0;
+		}
+	}
+
+	@Benchmark
+	public int countPrimes(Checks counters) {
+		int count = 0;
+		long end = start + PrimalityBenchmark.WINDOW;
+		PrimitiveIterator.OfLong candidates = wheel.candidates(start);
+		for (long n = candidates.nextLong(); n < end; n = candidates.nextLong()) {
+			counters.checks++;
+			if (strategy.isPrime(n)) count++;
+		}
+		counters.windows++;
+		return count;
+	}
+}
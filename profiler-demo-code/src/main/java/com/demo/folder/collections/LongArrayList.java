@@ -0,0 +1,66 @@
+package com.demo.folder.collections;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive longs, so the pipeline can collect numbers without boxing each one.
+ * Not thread-safe.
+ */
+public class LongArrayList {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] values;
+	private int size;
+
+	public LongArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LongArrayList(int initialCapacity) {
+		if (initialCapacity < 0) throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+		values = new long[Math.max(initialCapacity, 1)];
+	}
+
+	public void add(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size + (size >> 1) + 1);
+		}
+		values[size++] = value;
+	}
+
+	public long get(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return values[index];
+	}
+
+	public long last() {
+		return get(size - 1);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) sb.append(", ");
+			sb.append(values[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,131 @@
+package com.demo.folder.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive longs with linear probing. Slot value 0 marks an empty slot,
+ * so membership of 0 itself is tracked separately. Not thread-safe.
+ */
+public class LongHashSet {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] slots;
+	private int mask;
+	private int size;
+	private boolean containsZero;
+
+	public LongHashSet() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LongHashSet(int expectedSize) {
+		allocate(tableSizeFor(expectedSize));
+	}
+
+	/**
+	 * @return true if the value was not already present.
+	 */
+	public boolean add(long value) {
+		if (value == 0) {
+			if (containsZero) return false;
+			containsZero = true;
+			size++;
+			return true;
+		}
+		int index = indexOf(value);
+		while (slots[index] != 0) {
+			if (slots[index] == value) return false;
+			index = (index + 1) & mask;
+		}
+		slots[index] = value;
+		if (++size > slots.length * LOAD_FACTOR) rehash(slots.length * 2);
+		return true;
+	}
+
+	public boolean contains(long value) {
+		if (value == 0) return containsZero;
+		int index = indexOf(value);
+		while (slots[index] != 0) {
+			if (slots[index] == value) return true;
+			index = (index + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the value was present.
+	 */
+	public boolean remove(long value) {
+		if (value == 0) {
+			if (!containsZero) return false;
+			containsZero = false;
+			size--;
+			return true;
+		}
+		int index = indexOf(value);
+		while (slots[index] != value) {
+			if (slots[index] == 0) return false;
+			index = (index + 1) & mask;
+		}
+		size--;
+		//backward-shift the rest of the probe run so lookups never stop early at the hole
+		int hole = index;
+		index = (index + 1) & mask;
+		while (slots[index] != 0) {
+			int home = indexOf(slots[index]);
+			if (((index - home) & mask) >= ((index - hole) & mask)) {
+				slots[hole] = slots[index];
+				hole = index;
+			}
+			index = (index + 1) & mask;
+		}
+		slots[hole] = 0;
+		return true;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(slots, 0L);
+		containsZero = false;
+		size = 0;
+	}
+
+	private int indexOf(long value) {
+		//murmur3 finalizer, consecutive numbers would otherwise cluster in neighbouring slots
+		long h = value;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return (int) h & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] old = slots;
+		allocate(capacity);
+		for (long value : old) {
+			if (value == 0) continue;
+			int index = indexOf(value);
+			while (slots[index] != 0) index = (index + 1) & mask;
+			slots[index] = value;
+		}
+	}
+
+	private void allocate(int capacity) {
+		slots = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		int needed = (int) Math.min(1L << 30, (long) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR));
+		return Integer.highestOneBit(needed - 1) << 1;
+	}
+}
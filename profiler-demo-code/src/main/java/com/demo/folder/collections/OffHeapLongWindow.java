@@ -0,0 +1,96 @@
+package com.demo.folder.collections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Ascending window of longs held in a direct (off-heap) buffer. Values are appended at the end and the
+ * consumed prefix is dropped from the front, so the buffer only ever holds what is still live and the
+ * garbage collector never has to trace or copy it. Not thread-safe.
+ */
+public class OffHeapLongWindow {
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private ByteBuffer buffer;
+	private int mask;
+	//positions count up forever, the slot is position & mask
+	private long head;
+	private long tail;
+
+	public OffHeapLongWindow() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public OffHeapLongWindow(int initialCapacity) {
+		if (initialCapacity < 1) throw new IllegalArgumentException("initialCapacity must be positive: " + initialCapacity);
+		allocate(Integer.highestOneBit(Math.max(initialCapacity * 2 - 1, 1)));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if {@code value} is smaller than the last value appended.
+	 */
+	public void append(long value) {
+		if (!isEmpty() && value < last()) throw new IllegalArgumentException(value + " is below the end of the window " + last());
+		if (tail - head == capacity()) grow();
+		buffer.putLong(slot(tail++), value);
+	}
+
+	/**
+	 * Drops every value below {@code value} from the front of the window.
+	 */
+	public void dropBelow(long value) {
+		while (head < tail && buffer.getLong(slot(head)) < value) head++;
+	}
+
+	public boolean contains(long value) {
+		long low = head;
+		long high = tail - 1;
+		while (low <= high) {
+			long middle = (low + high) >>> 1;
+			long found = buffer.getLong(slot(middle));
+			if (found < value) low = middle + 1;
+			else if (found > value) high = middle - 1;
+			else return true;
+		}
+		return false;
+	}
+
+	public long last() {
+		if (isEmpty()) throw new IllegalStateException("window is empty");
+		return buffer.getLong(slot(tail - 1));
+	}
+
+	public int size() {
+		return (int) (tail - head);
+	}
+
+	public boolean isEmpty() {
+		return head == tail;
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	private int slot(long position) {
+		return ((int) position & mask) << 3;
+	}
+
+	private void grow() {
+		ByteBuffer old = buffer;
+		int oldMask = mask;
+		allocate(capacity() * 2);
+		long size = tail - head;
+		for (long i = 0; i < size; i++) {
+			buffer.putLong(slot(i), old.getLong(((int) (head + i) & oldMask) << 3));
+		}
+		head = 0;
+		tail = size;
+	}
+
+	private void allocate(int capacity) {
+		buffer = ByteBuffer.allocateDirect(capacity * 8).order(ByteOrder.nativeOrder());
+		mask = capacity - 1;
+	}
+}
@@ -0,0 +1,108 @@
+package com.demo.folder.concurrent;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * What the pipeline tasks run on. Picked on the command line with {@code --executor=platform|virtual|pool},
+ * plus {@code --pool-size=N} for the fixed pool.
+ * <p>
+ * The tasks of one pipeline park waiting for each other, so a fixed pool needs a thread for every task of
+ * every pipeline running at once. Otherwise a producer can hold the last thread while it waits for a
+ * consumer that is still queued.
+ */
+public enum ExecutionMode {
+	PLATFORM("platform"),
+	VIRTUAL("virtual"),
+	FIXED_POOL("pool");
+
+	private static final String SWITCH = "--executor=";
+	private static final String POOL_SIZE_SWITCH = "--pool-size=";
+
+	private final String switchName;
+
+	ExecutionMode(String switchName) {
+		this.switchName = switchName;
+	}
+
+	public String getSwitchName() {
+		return switchName;
+	}
+
+	public ExecutorService newExecutor(int poolSize) {
+		switch (this) {
+			case PLATFORM:
+				//a new platform thread whenever every existing one is busy, so each running task has its own
+				return Executors.newCachedThreadPool();
+			case VIRTUAL:
+				return newVirtualThreadPerTaskExecutor();
+			case FIXED_POOL:
+				if (poolSize < 1) throw new IllegalArgumentException("poolSize must be at least 1: " + poolSize);
+				return Executors.newFixedThreadPool(poolSize);
+			default:
+				throw new AssertionError(this);
+		}
+	}
+
+	//looked up at run time, so the build stays on Java 17 and virtual threads work whenever the JVM has them
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class));
+			return (ExecutorService) factory.invokeExact();
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new UnsupportedOperationException("Virtual threads need Java 21, running on " + System.getProperty("java.version"), e);
+		}
+		catch (Throwable e) {
+			throw new IllegalStateException("Could not create a virtual thread executor", e);
+		}
+	}
+
+	/**
+	 * Runs {@code task} under {@code name}, so profilers still show which task a pooled or virtual thread is running.
+	 */
+	public static Runnable named(String name, Runnable task) {
+		return () -> {
+			Thread thread = Thread.currentThread();
+			String previous = thread.getName();
+			thread.setName(name);
+			try {
+				task.run();
+			}
+			finally {
+				thread.setName(previous);
+			}
+		};
+	}
+
+	public static ExecutionMode forName(String name) {
+		for (ExecutionMode mode : values()) {
+			if (mode.switchName.equalsIgnoreCase(name) || mode.name().equalsIgnoreCase(name)) return mode;
+		}
+		throw new IllegalArgumentException("Unknown execution mode: " + name);
+	}
+
+	/**
+	 * Returns the mode selected by an {@code --executor=} switch, or platform threads when there is none.
+	 */
+	public static ExecutionMode fromArgs(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith(SWITCH)) return forName(arg.substring(SWITCH.length()));
+		}
+		return PLATFORM;
+	}
+
+	/**
+	 * Returns the {@code --pool-size=} switch, or {@code defaultSize} when there is none.
+	 */
+	public static int poolSizeFromArgs(String[] args, int defaultSize) {
+		for (String arg : args) {
+			if (arg.startsWith(POOL_SIZE_SWITCH)) return Integer.parseInt(arg.substring(POOL_SIZE_SWITCH.length()));
+		}
+		return defaultSize;
+	}
+}
@@ -0,0 +1,177 @@
+package com.demo.folder.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free queue of primitive longs for exactly one producer thread and one consumer thread.
+ * The tail (written by the producer) and head (written by the consumer) live on separate cache lines,
+ * and each side caches the other's sequence so it only re-reads it when the buffer looks full or empty.
+ * <p>
+ * {@link #offer(long)} and {@link #poll()} never wait. {@link #put(long)} and {@link #take()} park the
+ * calling thread until the other side makes room or data, and {@link #close()} signals completion.
+ * A side that blocks must be paired with the blocking operation on the other side, since only those wake it.
+ */
+public final class LongSpscRingBuffer extends ConsumerFields {
+
+	/**
+	 * Returned by {@link #poll()} when the buffer is empty, so it can never be stored.
+	 */
+	public static final long EMPTY = Long.MIN_VALUE;
+
+	private static final AtomicLongFieldUpdater<ProducerFields> TAIL = AtomicLongFieldUpdater.newUpdater(ProducerFields.class, "tail");
+	private static final AtomicLongFieldUpdater<ConsumerFields> HEAD = AtomicLongFieldUpdater.newUpdater(ConsumerFields.class, "head");
+
+	private final long[] buffer;
+	private final int mask;
+
+	private volatile boolean closed;
+	private volatile Thread parkedProducer;
+	private volatile Thread parkedConsumer;
+
+	long p20, p21, p22, p23, p24, p25, p26, p27;
+
+	public LongSpscRingBuffer(int capacity) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+		}
+		buffer = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+
+	/**
+	 * Producer side. Returns false, without waiting, when the buffer is full.
+	 */
+	public boolean offer(long value) {
+		return offer(value, false);
+	}
+
+	/**
+	 * Producer side. Parks until there is room, and returns false only if the buffer has been closed.
+	 */
+	public boolean put(long value) {
+		while (!closed) {
+			if (offer(value, true)) {
+				unpark(parkedConsumer);
+				return true;
+			}
+			parkedProducer = Thread.currentThread();
+			//re-check after announcing ourselves, so a take() that ran in between can't be missed
+			if (isFull() && !closed) LockSupport.park(this);
+			parkedProducer = null;
+		}
+		return false;
+	}
+
+	/**
+	 * Consumer side. Returns {@link #EMPTY} when there is nothing to take.
+	 */
+	public long poll() {
+		return poll(false);
+	}
+
+	/**
+	 * Consumer side. Parks until a value arrives, and returns {@link #EMPTY} only once the buffer has been
+	 * closed and drained.
+	 */
+	public long take() {
+		while (true) {
+			long value = poll(true);
+			if (value != EMPTY) {
+				unpark(parkedProducer);
+				return value;
+			}
+			if (closed) {
+				//the producer may have added a last value just before closing
+				value = poll(true);
+				if (value != EMPTY) return value;
+				return EMPTY;
+			}
+			parkedConsumer = Thread.currentThread();
+			if (isEmpty() && !closed) LockSupport.park(this);
+			parkedConsumer = null;
+		}
+	}
+
+	/**
+	 * Marks the end of the stream: later puts fail, and takes return {@link #EMPTY} once the rest is drained.
+	 */
+	public void close() {
+		closed = true;
+		unpark(parkedProducer);
+		unpark(parkedConsumer);
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	public boolean isEmpty() {
+		return head >= tail;
+	}
+
+	/**
+	 * Approximate when called concurrently with the producer or consumer.
+	 */
+	public int size() {
+		long h = head;
+		long t = tail;
+		return (int) Math.max(0, Math.min(t - h, buffer.length));
+	}
+
+	private boolean offer(long value, boolean blocking) {
+		if (value == EMPTY) throw new IllegalArgumentException("EMPTY cannot be queued");
+		long t = tail;
+		if (t - headCache >= buffer.length) {
+			headCache = head;
+			if (t - headCache >= buffer.length) return false;
+		}
+		buffer[(int) t & mask] = value;
+		//a blocking peer needs a full fence between this store and reading its parked-thread field
+		if (blocking) TAIL.set(this, t + 1);
+		else TAIL.lazySet(this, t + 1);
+		return true;
+	}
+
+	private long poll(boolean blocking) {
+		long h = head;
+		if (h >= tailCache) {
+			tailCache = tail;
+			if (h >= tailCache) return EMPTY;
+		}
+		long value = buffer[(int) h & mask];
+		if (blocking) HEAD.set(this, h + 1);
+		else HEAD.lazySet(this, h + 1);
+		return value;
+	}
+
+	private boolean isFull() {
+		return tail - head >= buffer.length;
+	}
+
+	private static void unpark(Thread thread) {
+		if (thread != null) LockSupport.unpark(thread);
+	}
+}
+
+abstract class LeftPadding {
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class ProducerFields extends LeftPadding {
+	volatile long tail;
+	long headCache;
+}
+
+abstract class MiddlePadding extends ProducerFields {
+	long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class ConsumerFields extends MiddlePadding {
+	volatile long head;
+	long tailCache;
+}
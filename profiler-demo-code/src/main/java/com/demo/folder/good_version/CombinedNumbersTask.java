@@ -1,31 +1,61 @@
 package com.demo.folder.good_version;
 
-import java.util.ArrayList;
+import com.demo.folder.collections.LongArrayList;
+import com.demo.folder.concurrent.LongSpscRingBuffer;
+import com.demo.folder.metrics.StageMetrics;
+import com.demo.folder.profiling.MatchFoundEvent;
+import com.demo.folder.sequence.KWayIntersection;
+import com.demo.folder.sequence.SequenceGenerator;
+
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class CombinedNumbersTask implements Runnable {
 
+	private static final long NONE = LongSpscRingBuffer.EMPTY;
+
 	private FibonnaciNumbersTask fibonnaciNumbersTask;
 	private PrimeNumbersTask primeNumbersTask;
+	//when set, joined instead of the two tasks
+	private SequenceGenerator[] sources;
+	//terms read from each input, only written by the worker thread
+	private long[] taken = new long[0];
+
+	//only touched by the worker thread
+	private final LongArrayList matches = new LongArrayList();
+	//replaced on each match, so readers get a consistent snapshot without locking or holding up the worker
+	private volatile MatchSnapshot snapshot = MatchSnapshot.EMPTY;
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<Subscription>();
+
+	//only used to wake threads waiting in awaitSize(), never held while merging
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
 	
-	private List<Integer> primes = new ArrayList<Integer>();
-	private List<Integer> fibonnacis = new ArrayList<Integer>();
-	private List<Integer> combined = new ArrayList<Integer>();
-	
-	private Boolean finished;
+	private volatile boolean finished;
+	private volatile boolean done;
+	private StageMetrics metrics = new StageMetrics("combined");
 	
 	public void taskComplete() {
 		finished = true;
 	}
+
+	/**
+	 * True once the task has stopped, either because it was completed or because an input ran dry.
+	 */
+	public boolean isDone() {
+		return done;
+	}
 	
 	public void printCombinedNumbers() {
-		synchronized (this) {
-			System.out.println(combined.toString());			
-		}
+		System.out.println(snapshot);
 	}
 	
 	public void printStatus() {
-		System.out.println("primes : " + primes.size() + " fibs : " + fibonnacis.size());
+		System.out.println("terms taken : " + Arrays.toString(taken));
 	}
 	
 	public void setFibonnaciNumbersTask(FibonnaciNumbersTask fibonnaciNumbersTask) {
@@ -36,31 +66,149 @@ public class CombinedNumbersTask implements Runnable {
 		this.primeNumbersTask = primeNumbersTask;
 	}
 	
+	/**
+	 * Joins any number of non-decreasing sequences instead of the prime and fibonnaci tasks.
+	 */
+	public void setSources(SequenceGenerator... sources) {
+		this.sources = sources.clone();
+	}
+
+	public void setMetrics(StageMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	public int getSize() {
-		synchronized (this) {
-			if (combined == null) return 0;
-			return (combined.size());
+		return snapshot.size();
+	}
+
+	public MatchSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Starts passing new matches to {@code listener}, beginning with any that have already been found.
+	 */
+	public void addListener(MatchListener listener) {
+		Subscription subscription = new Subscription(listener);
+		subscriptions.add(subscription);
+		//the worker may be delivering the same versions right now, the subscription sorts out who gets there first
+		subscription.deliver(snapshot);
+		if (done) subscription.finish(snapshot);
+	}
+
+	public void removeListener(MatchListener listener) {
+		subscriptions.removeIf(subscription -> subscription.listener == listener);
+	}
+
+	/**
+	 * Waits until there are at least {@code target} matches, the task is done, or the timeout passes.
+	 *
+	 * @return the number of matches found so far.
+	 */
+	public int awaitSize(int target, long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lock();
+		try {
+			while (snapshot.size() < target && !done && nanos > 0) {
+				nanos = changed.awaitNanos(nanos);
+			}
+			return snapshot.size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void publishMatch(long match) {
+		matches.add(match);
+		MatchSnapshot published = new MatchSnapshot(matches.toArray());
+		snapshot = published;
+		metrics.recordGenerated();
+		MatchFoundEvent.emit(match);
+		signalChanged();
+		for (Subscription subscription : subscriptions) subscription.deliver(published);
+	}
+
+	private void signalChanged() {
+		lock.lock();
+		try {
+			changed.signalAll();
+		}
+		finally {
+			lock.unlock();
 		}
 	}
 
 
+	//counts each term, stops the join once the task is complete, and times only a read that is likely to park,
+	//so an input that never has to wait never reads the clock
+	private SequenceGenerator input(int index, SequenceGenerator source) {
+		return () -> {
+			if (finished) return NONE;
+			long term;
+			if (source.mayBlock()) {
+				long start = System.nanoTime();
+				term = source.nextTerm();
+				metrics.recordIdle(System.nanoTime() - start);
+			}
+			else {
+				term = source.nextTerm();
+			}
+			if (term != NONE) taken[index]++;
+			return term;
+		};
+	}
+
 	@Override
 	public void run() {
-		finished = false;
-		
-		while (!finished) {
-			Integer prime = primeNumbersTask.getNextNumber();
-			if (prime != null) primes.add(prime);
-			Integer fib = fibonnaciNumbersTask.getNextNumber();
-			if (fib != null) fibonnacis.add(fib);
-			
-			synchronized (this) {
-				combined = new ArrayList<>(primes);
-				combined.retainAll(fibonnacis);				
-			}
+		metrics.started();
+		try {
+			SequenceGenerator[] inputs = sources != null ? sources : new SequenceGenerator[] {primeNumbersTask, fibonnaciNumbersTask};
+			taken = new long[inputs.length];
+			SequenceGenerator[] counted = new SequenceGenerator[inputs.length];
+			for (int i = 0; i < inputs.length; i++) counted[i] = input(i, inputs[i]);
 
+			//each read parks until that producer has something, so nothing spins while an input is empty
+			KWayIntersection intersection = new KWayIntersection(counted);
+			while (!finished) {
+				long match = intersection.nextTerm();
+				if (match == NONE) break;
+				publishMatch(match);
+			}
+		}
+		finally {
+			//an input that has ended means no further matches are possible
+			done = true;
+			signalChanged();
+			MatchSnapshot last = snapshot;
+			for (Subscription subscription : subscriptions) subscription.finish(last);
 		}
 		
 	}
 
+	//remembers the last version its listener was given, so each match is passed on exactly once and in order
+	private static final class Subscription {
+		private final MatchListener listener;
+		private long version;
+		private boolean finished;
+
+		Subscription(MatchListener listener) {
+			this.listener = listener;
+		}
+
+		synchronized void deliver(MatchSnapshot snapshot) {
+			if (snapshot.version() <= version) return;
+			long[] added = snapshot.since(version);
+			version = snapshot.version();
+			listener.matchesAdded(snapshot, added);
+		}
+
+		synchronized void finish(MatchSnapshot snapshot) {
+			if (finished) return;
+			finished = true;
+			deliver(snapshot);
+			listener.finished(snapshot);
+		}
+	}
+
 }
@@ -1,58 +1,85 @@
 package com.demo.folder.good_version;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.demo.folder.concurrent.LongSpscRingBuffer;
+import com.demo.folder.metrics.StageMetrics;
+import com.demo.folder.profiling.QueueFullEvent;
+import com.demo.folder.sequence.FibonnaciSequence;
+import com.demo.folder.sequence.SequenceGenerator;
 
-public class FibonnaciNumbersTask implements Runnable {
+public class FibonnaciNumbersTask implements Runnable, SequenceGenerator {
 
-	private List<Integer> fibonnacis = new ArrayList<Integer>();
-	private Boolean finished;
+	//we need to stop the fibonnaci numbers growing too quickly, so the producer parks once this many are waiting to be collected
+	public static final int DEFAULT_BUFFER_SIZE = 128;
 
+	private final LongSpscRingBuffer fibonnacis;
+	private volatile boolean finished;
+	private StageMetrics metrics = new StageMetrics("fibonnacis");
+
+	public FibonnaciNumbersTask() {
+		this(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param bufferSize how many numbers can wait for the consumer before this task parks, a power of two.
+	 */
+	public FibonnaciNumbersTask(int bufferSize) {
+		fibonnacis = new LongSpscRingBuffer(bufferSize);
+	}
+
+	/**
+	 * Stops the task and closes its output, which wakes it if it is parked on a full buffer.
+	 */
 	public void taskComplete() {
 		finished = true;
+		fibonnacis.close();
+	}
+
+	public void setMetrics(StageMetrics metrics) {
+		this.metrics = metrics;
 	}
 
 	public int getSize() {
-		synchronized (this) {
-			return (fibonnacis.size());
-		}
+		return fibonnacis.size();
 	}
 
-	public Integer getNextNumber() {
-		synchronized (this) {
-			if (fibonnacis.size() >0) {
-				return fibonnacis.remove(0);
-			}
-			else return null;
-		}
+	/**
+	 * @return the next fibonnaci number, or {@link LongSpscRingBuffer#EMPTY} if none is waiting.
+	 */
+	public long getNextNumber() {
+		return fibonnacis.poll();
 	}
 
+	/**
+	 * Parks until the next fibonnaci number is available.
+	 *
+	 * @return the next fibonnaci number, or {@link LongSpscRingBuffer#EMPTY} once the sequence has ended and been drained.
+	 */
+	public long takeNextNumber() {
+		return fibonnacis.take();
+	}
 
 	@Override
-	public void run() {
-		finished = false;
-		int a = 0;
-		int b = 1;
-
-		synchronized (this) {
-			fibonnacis.add(a);
-			fibonnacis.add(b);
-		}
+	public long nextTerm() {
+		return takeNextNumber();
+	}
 
-		while (!finished) {
-			//only the add really needs to be synchronized.
+	@Override
+	public boolean mayBlock() {
+		return fibonnacis.isEmpty();
+	}
 
-			synchronized (this) {
-				//we need to stop the fibonnaci numbers growing too quickly so we'll pause if there are > 100 waiting to be collected
-				if (fibonnacis.size() < 100) {
-					int c = a+b;
-					fibonnacis.add(c);
-					a = b;
-					b = c;
-				}
-			}
+	@Override
+	public void run() {
+		metrics.started();
+		FibonnaciSequence sequence = new FibonnaciSequence();
 
+		//the queue carries longs, and no prime the pipeline can reach is anywhere near F(92), so stop there
+		while (!finished && sequence.hasNextLong()) {
+			if (!QueueFullEvent.put(fibonnacis, "fibonnacis", sequence.nextLong())) break;
+			metrics.recordGenerated();
 		}
+		//lets the consumer know the sequence has ended once it has drained the buffer
+		fibonnacis.close();
 
 	}
 
@@ -1,46 +1,81 @@
 package com.demo.folder.good_version;
 
+import com.demo.folder.concurrent.ExecutionMode;
+import com.demo.folder.metrics.MetricsReporter;
+import com.demo.folder.metrics.StageMetrics;
+import com.demo.folder.primes.PrimeEngine;
+import com.demo.folder.primes.PrimeTable;
+import com.demo.folder.primes.Wheel;
+import com.demo.folder.sequence.NumberSequence;
+import com.demo.folder.sequence.SequenceGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
 public class Main {
 
-	public static void main(String[] args) throws InterruptedException {
+	public static void main(String[] args) throws InterruptedException, IOException {
 		int target = 100;
+		MetricsReporter reporter = new MetricsReporter("good", MetricsReporter.reportSecondsFromArgs(args));
+		ExecutorService executor = ExecutionMode.fromArgs(args).newExecutor(ExecutionMode.poolSizeFromArgs(args, Pipeline.TASKS));
 		
-		PrimeNumbersTask primeNumbersTask = new PrimeNumbersTask();
-		Thread primesGeneratorThread = new Thread(primeNumbersTask);
-		primesGeneratorThread.start();
-		primesGeneratorThread.setName("primesGeneratorThread");
-		
-		FibonnaciNumbersTask fibonnaciNumbersTask = new FibonnaciNumbersTask();
-		Thread fibonnaciNumbersThread = new Thread(fibonnaciNumbersTask);
-		fibonnaciNumbersThread.setName("fibonnaciNumbersThread");
-		fibonnaciNumbersThread.start();
+		Pipeline pipeline = new Pipeline();
+		PrimeNumbersTask primeNumbersTask = pipeline.getPrimeNumbersTask();
+		primeNumbersTask.setEngine(PrimeEngine.fromArgs(args));
+		primeNumbersTask.setParallelism(PrimeEngine.parallelismFromArgs(args));
+		primeNumbersTask.setWheel(Wheel.fromArgs(args));
+		primeNumbersTask.setPrimeTable(PrimeTable.fromArgs(args));
+		StageMetrics primeMetrics = reporter.stage("primes");
+		primeMetrics.setQueueDepth(primeNumbersTask::getSize);
+		primeNumbersTask.setMetrics(primeMetrics);
 		
-		CombinedNumbersTask combinedNumbersTask = new CombinedNumbersTask();
-		combinedNumbersTask.setPrimeNumbersTask(primeNumbersTask);
-		combinedNumbersTask.setFibonnaciNumbersTask(fibonnaciNumbersTask);
-		Thread combinedNumbersThread = new Thread(combinedNumbersTask);
-		combinedNumbersThread.start();
-		combinedNumbersThread.setName("combinedNumbersThread");
+		FibonnaciNumbersTask fibonnaciNumbersTask = pipeline.getFibonnaciNumbersTask();
+		StageMetrics fibonnaciMetrics = reporter.stage("fibonnacis");
+		fibonnaciMetrics.setQueueDepth(fibonnaciNumbersTask::getSize);
+		fibonnaciNumbersTask.setMetrics(fibonnaciMetrics);
 		
-		int combined = 0;
-		int iterations = 0;
-		while (combined < target) {
-			iterations++;
-			combined = combinedNumbersTask.getSize();
-			
-			if (combined > 100)  {
-				primeNumbersTask.taskComplete();
-				fibonnaciNumbersTask.taskComplete();
-				combinedNumbersTask.taskComplete();
-			}
-			
-			if (iterations > 200) {
-				iterations = 0;
-				System.out.println( "Currently got " + combined + " matching numbers.");
-				if (combined > 0) combinedNumbersTask.printCombinedNumbers();
-				Thread.sleep(1000);
+		CombinedNumbersTask combinedNumbersTask = pipeline.getCombinedNumbersTask();
+		combinedNumbersTask.setMetrics(reporter.stage("combined"));
+		//--sequences=... joins other sequences too, the prime and fibonnaci tasks stand in for their own
+		List<NumberSequence> sequences = NumberSequence.fromArgs(args);
+		if (!sequences.isEmpty()) {
+			SequenceGenerator[] sources = new SequenceGenerator[sequences.size()];
+			for (int i = 0; i < sources.length; i++) {
+				NumberSequence sequence = sequences.get(i);
+				if (sequence == NumberSequence.PRIMES) sources[i] = primeNumbersTask;
+				else if (sequence == NumberSequence.FIBONNACI) sources[i] = fibonnaciNumbersTask;
+				else sources[i] = sequence.newGenerator();
 			}
+			combinedNumbersTask.setSources(sources);
 		}
+
+		//told about each new match as it is found, and sleeps until there are enough or the inputs run dry
+		CountDownLatch enough = new CountDownLatch(1);
+		combinedNumbersTask.addListener(new MatchListener() {
+			@Override
+			public void matchesAdded(MatchSnapshot snapshot, long[] added) {
+				System.out.println( "Currently got " + snapshot.size() + " matching numbers, new : " + Arrays.toString(added));
+				if (snapshot.size() >= target) enough.countDown();
+			}
+
+			@Override
+			public void finished(MatchSnapshot snapshot) {
+				enough.countDown();
+			}
+		});
+		reporter.start();
+		pipeline.start(executor);
+		enough.await();
+		int combined = combinedNumbersTask.getSize();
+
+		pipeline.stop();
+		executor.shutdown();
+
+		reporter.report();
+		reporter.close();
 		System.out.println("Job done  - found " + combined + ".");
 		if (combined > 0) combinedNumbersTask.printCombinedNumbers();
 	}
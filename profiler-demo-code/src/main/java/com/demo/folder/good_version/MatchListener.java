@@ -0,0 +1,18 @@
+package com.demo.folder.good_version;
+
+/**
+ * Told about each new version of a CombinedNumbersTask's matches, with only the matches it hasn't seen yet.
+ * Calls are made on the combining thread (or the registering one, for what was already there), one at a time
+ * per listener, so they should hand anything slow off elsewhere.
+ */
+@FunctionalInterface
+public interface MatchListener {
+
+	void matchesAdded(MatchSnapshot snapshot, long[] added);
+
+	/**
+	 * The task has stopped and {@code snapshot} is final. Every match has been passed to matchesAdded by then.
+	 */
+	default void finished(MatchSnapshot snapshot) {
+	}
+}
@@ -0,0 +1,47 @@
+package com.demo.folder.good_version;
+
+import java.util.Arrays;
+
+/**
+ * The matches a CombinedNumbersTask had found at one point, never modified once published. Matches are only
+ * ever appended, so the version is simply how many there are, and a later snapshot extends every earlier one.
+ */
+public final class MatchSnapshot {
+
+	static final MatchSnapshot EMPTY = new MatchSnapshot(new long[0]);
+
+	private final long[] numbers;
+
+	MatchSnapshot(long[] numbers) {
+		this.numbers = numbers;
+	}
+
+	public long version() {
+		return numbers.length;
+	}
+
+	public int size() {
+		return numbers.length;
+	}
+
+	public long get(int index) {
+		return numbers[index];
+	}
+
+	public long[] toArray() {
+		return numbers.clone();
+	}
+
+	/**
+	 * The matches added after {@code version}, in the order they were found.
+	 */
+	public long[] since(long version) {
+		if (version < 0 || version > numbers.length) throw new IllegalArgumentException("Not an earlier version: " + version);
+		return Arrays.copyOfRange(numbers, (int) version, numbers.length);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(numbers);
+	}
+}
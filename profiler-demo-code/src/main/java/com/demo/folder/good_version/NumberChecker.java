@@ -1,9 +1,21 @@
 package com.demo.folder.good_version;
 
-public class NumberChecker {
+import com.demo.folder.primes.PrimalityChecker;
 
-	public Boolean isPrime(Integer testNumber) {
-		for (Integer i = 2; i < testNumber; i++) {
+public class NumberChecker implements PrimalityChecker {
+
+	//primitive in and out, so neither the loop counter nor the answer gets boxed
+	@Override
+	public boolean isPrime(long testNumber) {
+		//32-bit division is noticeably cheaper than 64-bit, so stay in int while we can
+		if (testNumber <= Integer.MAX_VALUE) {
+			int n = (int) testNumber;
+			for (int i = 2; i < n; i++) {
+				if (n % i == 0) return false;
+			}
+			return true;
+		}
+		for (long i = 2; i < testNumber; i++) {
 			if (testNumber % i == 0) return false;
 		}
 		return true;
@@ -0,0 +1,68 @@
+package com.demo.folder.good_version;
+
+import com.demo.folder.concurrent.ExecutionMode;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One prime, fibonnaci and combined task wired together, so several independent pipelines can be run on
+ * the same executor (for example one per range of primes).
+ */
+public class Pipeline {
+
+	//how many tasks start() submits, and so how many threads one running pipeline needs from a fixed pool
+	public static final int TASKS = 3;
+
+	private final PrimeNumbersTask primeNumbersTask;
+	private final FibonnaciNumbersTask fibonnaciNumbersTask;
+	private final CombinedNumbersTask combinedNumbersTask = new CombinedNumbersTask();
+
+	public Pipeline() {
+		this(PrimeNumbersTask.DEFAULT_BUFFER_SIZE, FibonnaciNumbersTask.DEFAULT_BUFFER_SIZE);
+	}
+
+	public Pipeline(int primeBufferSize, int fibonnaciBufferSize) {
+		primeNumbersTask = new PrimeNumbersTask(primeBufferSize);
+		fibonnaciNumbersTask = new FibonnaciNumbersTask(fibonnaciBufferSize);
+		combinedNumbersTask.setPrimeNumbersTask(primeNumbersTask);
+		combinedNumbersTask.setFibonnaciNumbersTask(fibonnaciNumbersTask);
+	}
+
+	public PrimeNumbersTask getPrimeNumbersTask() {
+		return primeNumbersTask;
+	}
+
+	public FibonnaciNumbersTask getFibonnaciNumbersTask() {
+		return fibonnaciNumbersTask;
+	}
+
+	public CombinedNumbersTask getCombinedNumbersTask() {
+		return combinedNumbersTask;
+	}
+
+	public void start(Executor executor) {
+		executor.execute(ExecutionMode.named("primesGeneratorThread", primeNumbersTask));
+		executor.execute(ExecutionMode.named("fibonnaciNumbersThread", fibonnaciNumbersTask));
+		executor.execute(ExecutionMode.named("combinedNumbersThread", combinedNumbersTask));
+	}
+
+	/**
+	 * Waits for the combined task to finish, which a pipeline with a prime range does once the range is exhausted.
+	 *
+	 * @return true if it finished before the timeout.
+	 */
+	public boolean awaitDone(long timeout, TimeUnit unit) throws InterruptedException {
+		combinedNumbersTask.awaitSize(Integer.MAX_VALUE, timeout, unit);
+		return combinedNumbersTask.isDone();
+	}
+
+	/**
+	 * Closing the producers' buffers wakes anything parked on them.
+	 */
+	public void stop() {
+		primeNumbersTask.taskComplete();
+		fibonnaciNumbersTask.taskComplete();
+		combinedNumbersTask.taskComplete();
+	}
+}
@@ -1,60 +1,214 @@
 package com.demo.folder.good_version;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.demo.folder.concurrent.LongSpscRingBuffer;
+import com.demo.folder.metrics.StageMetrics;
+import com.demo.folder.primes.MillerRabinChecker;
+import com.demo.folder.primes.PrimalityChecker;
+import com.demo.folder.primes.PrimeBatchSource;
+import com.demo.folder.primes.PrimeEngine;
+import com.demo.folder.primes.PrimeTable;
+import com.demo.folder.primes.Wheel;
+import com.demo.folder.profiling.PrimeFoundEvent;
+import com.demo.folder.profiling.QueueFullEvent;
+import com.demo.folder.sequence.SequenceGenerator;
 
-public class PrimeNumbersTask implements Runnable {
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
 
-	private List<Integer> primes = new ArrayList<Integer>();
-	private Integer lastNumberChecked;
-	private Integer lastNumberRetrieved = 0;
-	private NumberChecker checker;
-	private Boolean finished;
+public class PrimeNumbersTask implements Runnable, SequenceGenerator {
 
-	private void generateNextPrime() {
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+	//numbers read from the prime table between checks for taskComplete()
+	private static final long TABLE_CHUNK = 1 << 20;
+	//candidates handed to the checker at once, so checkers with a batch implementation can work across them
+	private static final int CHECK_BLOCK = 256;
 
-		//only the add really needs to be synchronized
-		synchronized (this) {
-			Integer testNumber = lastNumberChecked + 1;
-			while (!checker.isPrime(testNumber)) {
-				testNumber++;
-			}
-			lastNumberChecked = testNumber;
-			primes.add(testNumber);
+	//single producer (this task) and single consumer (the CombinedNumbersTask), so no locking needed
+	private final LongSpscRingBuffer primes;
+	//what publish() has handed on, for the PrimeFound events
+	private long lastPublished;
+	private long publishedCount;
+	private PrimalityChecker checker;
+	private Wheel wheel = Wheel.NONE;
+	private PrimitiveIterator.OfLong candidates;
+	private final long[] block = new long[CHECK_BLOCK];
+	private final BitSet blockPrimes = new BitSet(CHECK_BLOCK);
+	private PrimeEngine engine = PrimeEngine.TRIAL_DIVISION;
+	private int parallelism = 1;
+	//half-open range of primes to produce, the whole long range unless one is set
+	private long from = 2;
+	private long to = Long.MAX_VALUE;
+	private PrimeBatchSource batchSource;
+	private PrimeTable primeTable;
+	private volatile boolean finished;
+	private StageMetrics metrics = new StageMetrics("primes");
+
+	public PrimeNumbersTask() {
+		this(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param bufferSize how many primes can wait for the consumer before this task parks, a power of two.
+	 */
+	public PrimeNumbersTask(int bufferSize) {
+		primes = new LongSpscRingBuffer(bufferSize);
+	}
+
+	private void generateNextBlock() {
+		for (int i = 0; i < block.length; i++) {
+			block[i] = candidates.nextLong();
+		}
+		checker.checkAll(block, blockPrimes);
+
+		long published = publishedCount;
+		for (int i = blockPrimes.nextSetBit(0); i >= 0 && block[i] < to; i = blockPrimes.nextSetBit(i + 1)) {
+			publish(block[i]);
+		}
+		emitFound(published);
+		if (block[block.length - 1] >= to) finished = true;
+	}
+
+	private void generateNextSegment() {
+		long published = publishedCount;
+		batchSource.nextBatch(this::publishInRange);
+		emitFound(published);
+		if (batchSource.upperBound() >= to) finished = true;
+	}
+
+	//replays the table instead of generating, and returns where generation has to pick up
+	private long publishFromTable() {
+		long end = Math.min(to, primeTable.limit());
+		long next = from;
+		while (!finished && next < end) {
+			long chunkEnd = Math.min(end, next + TABLE_CHUNK);
+			long published = publishedCount;
+			primeTable.forEachPrime(next, chunkEnd, this::publish);
+			emitFound(published);
+			next = chunkEnd;
 		}
+		return next;
+	}
+
+	//one event per block that found something, so empty blocks don't repeat a stale prime
+	private void emitFound(long published) {
+		if (publishedCount > published) PrimeFoundEvent.emit(lastPublished, (int) (publishedCount - published));
+	}
+
+	private void publishInRange(long prime) {
+		if (prime < to) publish(prime);
+	}
+
+	//parks only when the consumer has fallen a whole buffer behind, fails fast once the task is complete
+	private void publish(long prime) {
+		if (QueueFullEvent.put(primes, "primes", prime)) {
+			lastPublished = prime;
+			publishedCount++;
+			metrics.recordGenerated();
+		}
+	}
+
+	public void setEngine(PrimeEngine engine) {
+		this.engine = engine;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Skips the numbers the wheel rules out before they reach the checker. The sieving engines ignore it.
+	 */
+	public void setWheel(Wheel wheel) {
+		this.wheel = wheel;
 	}
 
+	/**
+	 * Only produces the primes in {@code [from, to)}, and closes the output once they have all been published.
+	 */
+	public void setRange(long from, long to) {
+		if (from < 0 || to < from) throw new IllegalArgumentException("Invalid range: [" + from + ", " + to + ")");
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Primes below the table's limit are read from it rather than generated, and the engine resumes from there.
+	 */
+	public void setPrimeTable(PrimeTable primeTable) {
+		this.primeTable = primeTable;
+	}
+
+	public void setMetrics(StageMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Stops the task and closes its output, which wakes it if it is parked on a full buffer.
+	 */
 	public void taskComplete() {
 		finished = true;
+		primes.close();
 	}
 
 	public int getSize() {
-		synchronized (this) {
-			return (primes.size());
-		}
+		return primes.size();
 	}
 
-	public Integer getNextNumber() {
-			if (primes.size() > lastNumberRetrieved) {
-				//doesn't need to be syncrhonized as not amending code
-				lastNumberRetrieved++;
-				return primes.get(lastNumberRetrieved-1);
-			}
-			else return null;
-		}
-	
+	/**
+	 * @return the next prime, or {@link LongSpscRingBuffer#EMPTY} if none is waiting.
+	 */
+	public long getNextNumber() {
+		return primes.poll();
+	}
+
+	/**
+	 * Parks until the next prime is available.
+	 *
+	 * @return the next prime, or {@link LongSpscRingBuffer#EMPTY} once the task has completed and been drained.
+	 */
+	public long takeNextNumber() {
+		return primes.take();
+	}
+
+	@Override
+	public long nextTerm() {
+		return takeNextNumber();
+	}
+
+	@Override
+	public boolean mayBlock() {
+		return primes.isEmpty();
+	}
 
 	@Override
 	public void run() {
-		finished = false;
-		checker= new NumberChecker();
-		synchronized (this) {
-			primes.add(2);
-		}
-		lastNumberChecked = 2;
+		metrics.started();
+		try {
+			long start = from;
+			if (primeTable != null) {
+				start = publishFromTable();
+				if (finished || start >= to) return;
+			}
+
+			if (engine.isBatched()) {
+				try (PrimeBatchSource source = engine.newBatchSource(start, parallelism)) {
+					batchSource = source;
+					while (!finished) {
+						generateNextSegment();
+					}
+				}
+				return;
+			}
 
-		while (!finished) {
-			generateNextPrime();
+			checker = engine == PrimeEngine.MILLER_RABIN ? new MillerRabinChecker() : new NumberChecker();
+			candidates = wheel.candidates(start);
+
+			while (!finished) {
+				generateNextBlock();
+			}
+		}
+		finally {
+			primes.close();
 		}
 	}
 }
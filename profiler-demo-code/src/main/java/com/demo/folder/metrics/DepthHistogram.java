@@ -0,0 +1,41 @@
+package com.demo.folder.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts of sampled queue depths in power-of-two buckets. Only the sampling thread records, so the
+ * atomic array is there for readers on other threads, not for contention.
+ */
+public class DepthHistogram {
+
+	public static final int BUCKETS = 33;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	public static int bucketOf(int depth) {
+		return depth <= 0 ? 0 : 32 - Integer.numberOfLeadingZeros(depth);
+	}
+
+	public void record(int depth) {
+		int bucket = bucketOf(depth);
+		counts.lazySet(bucket, counts.get(bucket) + 1);
+	}
+
+	public long[] snapshot() {
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) snapshot[i] = counts.get(i);
+		return snapshot;
+	}
+
+	@Override
+	public String toString() {
+		long[] snapshot = snapshot();
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < BUCKETS; i++) {
+			if (snapshot[i] == 0) continue;
+			if (sb.length() > 1) sb.append(", ");
+			sb.append(i == 0 ? "0" : "<" + (1L << i)).append(": ").append(snapshot[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
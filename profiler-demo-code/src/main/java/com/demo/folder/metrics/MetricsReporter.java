@@ -0,0 +1,116 @@
+package com.demo.folder.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes a pipeline's {@link StageMetrics} as MBeans and samples them from a single daemon thread:
+ * queue depths every {@link #SAMPLE_MILLIS}, rates over each report interval, plus a one-line-per-stage
+ * report every few seconds when asked for with {@code --metrics=SECONDS}. The stages themselves never
+ * wait on the reporter.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+	public static final long SAMPLE_MILLIS = 10;
+	//the rate interval when there is no printed report to line it up with
+	public static final long RATE_MILLIS = 1000;
+
+	private static final String SWITCH = "--metrics=";
+
+	private final String version;
+	private final long reportSeconds;
+	private final List<StageMetrics> stages = new ArrayList<StageMetrics>();
+	private final List<ObjectName> registered = new ArrayList<ObjectName>();
+	private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+		Thread thread = new Thread(task, "metricsReporter");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * @param reportSeconds how often to print a report, or 0 to only sample and publish over JMX.
+	 */
+	public MetricsReporter(String version, long reportSeconds) {
+		this.version = version;
+		this.reportSeconds = reportSeconds;
+	}
+
+	/**
+	 * Returns the {@code --metrics=} switch, or 0 (no printed report) when there is none.
+	 */
+	public static long reportSecondsFromArgs(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith(SWITCH)) return Long.parseLong(arg.substring(SWITCH.length()));
+		}
+		return 0;
+	}
+
+	public StageMetrics stage(String name) {
+		StageMetrics stage = new StageMetrics(name);
+		stages.add(stage);
+		return stage;
+	}
+
+	public void start() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads.isThreadContentionMonitoringSupported()) threads.setThreadContentionMonitoringEnabled(true);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (StageMetrics stage : stages) {
+			try {
+				ObjectName name = new ObjectName("com.demo.folder:type=Stage,version=" + version + ",name=" + stage.getName());
+				server.registerMBean(stage, name);
+				registered.add(name);
+			}
+			catch (JMException e) {
+				throw new IllegalStateException("Could not register metrics for " + stage.getName(), e);
+			}
+		}
+
+		sampler.scheduleAtFixedRate(this::sample, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+		//scheduled before the report at the same period, so each report shows the interval that just ended
+		long rateMillis = reportSeconds > 0 ? TimeUnit.SECONDS.toMillis(reportSeconds) : RATE_MILLIS;
+		sampler.scheduleAtFixedRate(this::updateRates, 0, rateMillis, TimeUnit.MILLISECONDS);
+		if (reportSeconds > 0) sampler.scheduleAtFixedRate(this::report, reportSeconds, reportSeconds, TimeUnit.SECONDS);
+	}
+
+	private void sample() {
+		for (StageMetrics stage : stages) stage.sample();
+	}
+
+	private void updateRates() {
+		long now = System.nanoTime();
+		for (StageMetrics stage : stages) stage.updateRate(now);
+	}
+
+	public void report() {
+		for (StageMetrics stage : stages) {
+			System.out.printf("[%s] %-10s %,14d generated %,14.0f/s  depth %5d %s  idle %,d ms  blocked %d (%d ms)%n",
+					version, stage.getName(), stage.getGenerated(), stage.getGeneratedPerSecond(), stage.getQueueDepth(),
+					stage.getDepthHistogram(), stage.getIdleMillis(), stage.getBlockedCount(), stage.getBlockedMillis());
+		}
+	}
+
+	@Override
+	public void close() {
+		sampler.shutdownNow();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName name : registered) {
+			try {
+				server.unregisterMBean(name);
+			}
+			catch (JMException e) {
+				//already gone, nothing left to clean up
+			}
+		}
+		registered.clear();
+	}
+}
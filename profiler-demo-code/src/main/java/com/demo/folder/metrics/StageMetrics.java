@@ -0,0 +1,126 @@
+package com.demo.folder.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.IntSupplier;
+
+/**
+ * Counters for one pipeline stage. Each stage runs on a single thread, so the counters have a single
+ * writer and are bumped with an ordered store instead of an atomic add, which keeps recording to
+ * about the cost of a plain field increment. Queue depth and monitor contention aren't recorded by the
+ * stage at all: the {@link MetricsReporter} samples them from its own thread.
+ */
+public class StageMetrics implements StageMetricsMXBean {
+
+	private static final AtomicLongFieldUpdater<StageMetrics> GENERATED = AtomicLongFieldUpdater.newUpdater(StageMetrics.class, "generated");
+	private static final AtomicLongFieldUpdater<StageMetrics> IDLE_NANOS = AtomicLongFieldUpdater.newUpdater(StageMetrics.class, "idleNanos");
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final String name;
+	private final DepthHistogram depthHistogram = new DepthHistogram();
+	private volatile long generated;
+	private volatile long idleNanos;
+	private volatile long threadId = -1;
+	private volatile IntSupplier queueDepth = () -> 0;
+
+	//only touched by the reporter's thread
+	private long lastGenerated;
+	private long lastSampleNanos;
+	private volatile double generatedPerSecond;
+
+	public StageMetrics(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Called by the stage from its own thread as it starts, so contention can be looked up for that thread.
+	 */
+	public void started() {
+		threadId = Thread.currentThread().getId();
+	}
+
+	public void recordGenerated() {
+		GENERATED.lazySet(this, generated + 1);
+	}
+
+	public void recordGenerated(int count) {
+		GENERATED.lazySet(this, generated + count);
+	}
+
+	public void recordIdle(long nanos) {
+		IDLE_NANOS.lazySet(this, idleNanos + nanos);
+	}
+
+	public void setQueueDepth(IntSupplier queueDepth) {
+		this.queueDepth = queueDepth;
+	}
+
+	void sample() {
+		depthHistogram.record(queueDepth.getAsInt());
+	}
+
+	//called once per report interval, since a 10 ms sample mostly sees no new items at all
+	void updateRate(long nowNanos) {
+		long current = generated;
+		if (lastSampleNanos != 0) {
+			generatedPerSecond = (current - lastGenerated) * 1e9 / (nowNanos - lastSampleNanos);
+		}
+		lastGenerated = current;
+		lastSampleNanos = nowNanos;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public long getGenerated() {
+		return generated;
+	}
+
+	@Override
+	public double getGeneratedPerSecond() {
+		return generatedPerSecond;
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return queueDepth.getAsInt();
+	}
+
+	@Override
+	public long[] getQueueDepthHistogram() {
+		return depthHistogram.snapshot();
+	}
+
+	public DepthHistogram getDepthHistogram() {
+		return depthHistogram;
+	}
+
+	@Override
+	public long getIdleMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(idleNanos);
+	}
+
+	@Override
+	public long getBlockedCount() {
+		ThreadInfo info = threadInfo();
+		return info == null ? -1 : info.getBlockedCount();
+	}
+
+	@Override
+	public long getBlockedMillis() {
+		ThreadInfo info = threadInfo();
+		return info == null ? -1 : info.getBlockedTime();
+	}
+
+	private ThreadInfo threadInfo() {
+		long id = threadId;
+		return id < 0 ? null : THREADS.getThreadInfo(id);
+	}
+}
@@ -0,0 +1,35 @@
+package com.demo.folder.metrics;
+
+/**
+ * What one pipeline stage exposes over JMX, under {@code com.demo.folder:type=Stage,version=...,name=...}.
+ */
+public interface StageMetricsMXBean {
+
+	String getName();
+
+	long getGenerated();
+
+	/**
+	 * Rate over the last report interval, or over the last {@link MetricsReporter#RATE_MILLIS} when nothing is printed.
+	 */
+	double getGeneratedPerSecond();
+
+	int getQueueDepth();
+
+	/**
+	 * Sampled queue depths, bucket {@code i} counting depths in {@code [2^(i-1), 2^i)} and bucket 0 an empty queue.
+	 */
+	long[] getQueueDepthHistogram();
+
+	long getIdleMillis();
+
+	/**
+	 * Times the stage's thread blocked entering a contended monitor, or -1 when it isn't running.
+	 */
+	long getBlockedCount();
+
+	/**
+	 * Total time spent blocked on monitors, or -1 if the JVM doesn't measure it.
+	 */
+	long getBlockedMillis();
+}
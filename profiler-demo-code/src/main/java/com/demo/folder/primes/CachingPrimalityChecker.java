@@ -0,0 +1,241 @@
+package com.demo.folder.primes;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers another checker's answers, for callers that ask about the same numbers again and again.
+ * Below {@code bitmapLimit} each odd number has two bits in a shared bitmap (known, prime) that are set with
+ * CAS and read without locking. Above it answers go into a bounded LRU cache, split into stripes by hash so
+ * threads asking about different numbers rarely meet on the same lock. Safe to share between threads, and the
+ * delegate is never called with a lock held, so two threads may occasionally work out the same number.
+ */
+public class CachingPrimalityChecker implements PrimalityChecker {
+
+	public static final long DEFAULT_BITMAP_LIMIT = 1L << 24;
+	public static final int DEFAULT_LRU_CAPACITY = 1 << 16;
+	public static final int DEFAULT_STRIPES = 16;
+
+	private final PrimalityChecker delegate;
+	private final long bitmapLimit;
+	//bits 2k and 2k + 1 of the array are known/prime for the odd number 2(32w + k) + 1 in word w
+	private final AtomicLongArray bitmap;
+	private final Stripe[] stripes;
+	private final int stripeMask;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public CachingPrimalityChecker(PrimalityChecker delegate) {
+		this(delegate, DEFAULT_BITMAP_LIMIT, DEFAULT_LRU_CAPACITY, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * @param bitmapLimit numbers below this are cached in the bitmap, a quarter of a byte per odd number.
+	 * @param lruCapacity how many larger numbers are remembered, shared evenly between the stripes.
+	 * @param stripes     a power of two, more of them means less contention but a coarser LRU.
+	 */
+	public CachingPrimalityChecker(PrimalityChecker delegate, long bitmapLimit, int lruCapacity, int stripes) {
+		if (bitmapLimit < 0 || bitmapLimit > 1L << 36) throw new IllegalArgumentException("bitmapLimit must be between 0 and 2^36: " + bitmapLimit);
+		if (stripes < 1 || Integer.bitCount(stripes) != 1) throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+		if (lruCapacity < stripes) throw new IllegalArgumentException("lruCapacity must be at least one per stripe: " + lruCapacity);
+		this.delegate = delegate;
+		this.bitmapLimit = bitmapLimit;
+		bitmap = new AtomicLongArray((int) ((bitmapLimit + 63) >>> 6));
+		this.stripes = new Stripe[stripes];
+		for (int i = 0; i < stripes; i++) this.stripes[i] = new Stripe(lruCapacity / stripes);
+		stripeMask = stripes - 1;
+	}
+
+	@Override
+	public boolean isPrime(long testNumber) {
+		if (testNumber < 3) return testNumber == 2;
+		if ((testNumber & 1) == 0) return false;
+		if (testNumber < bitmapLimit) return bitmapLookup(testNumber);
+
+		long hash = mix(testNumber);
+		Stripe stripe = stripes[(int) (hash >>> 32) & stripeMask];
+		int cached = stripe.get(testNumber, (int) hash);
+		if (cached != Stripe.ABSENT) {
+			hits.increment();
+			return cached == 1;
+		}
+		misses.increment();
+		boolean prime = delegate.isPrime(testNumber);
+		if (stripe.put(testNumber, (int) hash, prime)) evictions.increment();
+		return prime;
+	}
+
+	private boolean bitmapLookup(long n) {
+		long odd = n >>> 1;
+		int word = (int) (odd >>> 5);
+		int shift = (int) (odd & 31) << 1;
+		long bits = bitmap.get(word) >>> shift;
+		if ((bits & 1) != 0) {
+			hits.increment();
+			return (bits & 2) != 0;
+		}
+		misses.increment();
+		boolean prime = delegate.isPrime(n);
+		//one CAS sets both bits, so nobody can see "known" without the answer
+		long mask = (prime ? 3L : 1L) << shift;
+		while (true) {
+			long current = bitmap.get(word);
+			if ((current & mask) == mask || bitmap.compareAndSet(word, current, current | mask)) return prime;
+		}
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public double getHitRatio() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	/**
+	 * Numbers currently held by the LRU part of the cache.
+	 */
+	public int getLruSize() {
+		int size = 0;
+		for (Stripe stripe : stripes) size += stripe.size();
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("hits %,d misses %,d (%.1f%%) evictions %,d", getHits(), getMisses(), 100 * getHitRatio(), getEvictions());
+	}
+
+	//the low half picks the slot in a stripe's table, the high half picks the stripe
+	private static long mix(long n) {
+		long h = n * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 29);
+	}
+
+	/**
+	 * An LRU of a fixed number of entries kept in arrays: an open-addressing index from number to entry,
+	 * and a doubly linked recency list through the entries, so nothing is boxed or allocated after construction.
+	 */
+	private static final class Stripe {
+		static final int ABSENT = -1;
+		private static final int NIL = -1;
+
+		private final long[] keys;
+		private final boolean[] primes;
+		private final int[] previous;
+		private final int[] next;
+		//entry + 1, or 0 for an empty slot, kept at most half full
+		private final int[] index;
+		private final int indexMask;
+		private int head = NIL;
+		private int tail = NIL;
+		private int size;
+
+		Stripe(int capacity) {
+			keys = new long[capacity];
+			primes = new boolean[capacity];
+			previous = new int[capacity];
+			next = new int[capacity];
+			index = new int[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) * 2];
+			indexMask = index.length - 1;
+		}
+
+		/**
+		 * @return 1 if cached as prime, 0 if cached as composite, {@link #ABSENT} otherwise.
+		 */
+		synchronized int get(long key, int hash) {
+			int entry = find(key, hash);
+			if (entry == NIL) return ABSENT;
+			moveToFront(entry);
+			return primes[entry] ? 1 : 0;
+		}
+
+		/**
+		 * @return true if the least recently used entry was evicted to make room.
+		 */
+		synchronized boolean put(long key, int hash, boolean prime) {
+			if (find(key, hash) != NIL) return false;
+			boolean evicted = false;
+			int entry;
+			if (size < keys.length) {
+				entry = size++;
+			}
+			else {
+				entry = tail;
+				unlink(entry);
+				removeFromIndex(keys[entry]);
+				evicted = true;
+			}
+			keys[entry] = key;
+			primes[entry] = prime;
+			linkFirst(entry);
+			int slot = hash & indexMask;
+			while (index[slot] != 0) slot = (slot + 1) & indexMask;
+			index[slot] = entry + 1;
+			return evicted;
+		}
+
+		synchronized int size() {
+			return size;
+		}
+
+		private int find(long key, int hash) {
+			for (int slot = hash & indexMask; index[slot] != 0; slot = (slot + 1) & indexMask) {
+				int entry = index[slot] - 1;
+				if (keys[entry] == key) return entry;
+			}
+			return NIL;
+		}
+
+		//linear probing has no tombstones: entries after the hole that could live in it are shifted back
+		private void removeFromIndex(long key) {
+			int slot = (int) mix(key) & indexMask;
+			while (keys[index[slot] - 1] != key) slot = (slot + 1) & indexMask;
+			int hole = slot;
+			for (slot = (hole + 1) & indexMask; index[slot] != 0; slot = (slot + 1) & indexMask) {
+				int home = (int) mix(keys[index[slot] - 1]) & indexMask;
+				//moves it unless its home lies cyclically in (hole, slot]
+				if (((slot - home) & indexMask) >= ((slot - hole) & indexMask)) {
+					index[hole] = index[slot];
+					hole = slot;
+				}
+			}
+			index[hole] = 0;
+		}
+
+		private void moveToFront(int entry) {
+			if (entry == head) return;
+			unlink(entry);
+			linkFirst(entry);
+		}
+
+		private void unlink(int entry) {
+			int p = previous[entry];
+			int n = next[entry];
+			if (p == NIL) head = n;
+			else next[p] = n;
+			if (n == NIL) tail = p;
+			else previous[n] = p;
+		}
+
+		private void linkFirst(int entry) {
+			previous[entry] = NIL;
+			next[entry] = head;
+			if (head != NIL) previous[head] = entry;
+			head = entry;
+			if (tail == NIL) tail = entry;
+		}
+	}
+}
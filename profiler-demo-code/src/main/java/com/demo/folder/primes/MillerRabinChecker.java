@@ -0,0 +1,184 @@
+package com.demo.folder.primes;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Deterministic Miller-Rabin test for the whole non-negative {@code long} range.
+ * Numbers below {@link #SMALL_LIMIT} are answered from a precomputed odd-only bitmap. Larger ones are
+ * screened by a few small primes and then tested with a base set that is known to have no strong
+ * pseudoprimes below 2^64. Modular multiplication uses Montgomery form, so the inner loop has no division.
+ */
+public class MillerRabinChecker implements PrimalityChecker {
+
+	public static final int SMALL_LIMIT = 1 << 20;
+
+	private static final long[] SMALL_BITMAP = buildSmallBitmap();
+
+	private static final long[] BASES_32 = {2, 7, 61};
+	private static final long BASES_32_LIMIT = 4759123141L;
+	//Sinclair's set, deterministic for every n < 2^64
+	private static final long[] BASES_64 = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+
+	private static final int[] SCREEN_PRIMES = {3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47};
+	//n is a multiple of the odd p exactly when n * p^-1 (mod 2^64) is at most (2^64 - 1) / p, unsigned
+	private static final long[] SCREEN_INVERSES = new long[SCREEN_PRIMES.length];
+	private static final long[] SCREEN_LIMITS = new long[SCREEN_PRIMES.length];
+
+	static {
+		for (int j = 0; j < SCREEN_PRIMES.length; j++) {
+			SCREEN_INVERSES[j] = inverse(SCREEN_PRIMES[j]);
+			SCREEN_LIMITS[j] = Long.divideUnsigned(-1L, SCREEN_PRIMES[j]);
+		}
+	}
+
+	@Override
+	public boolean isPrime(long testNumber) {
+		if (testNumber < SMALL_LIMIT) return isSmallPrime(testNumber);
+		if ((testNumber & 1) == 0) return false;
+		for (int p : SCREEN_PRIMES) {
+			if (testNumber % p == 0) return false;
+		}
+		return millerRabin(testNumber, testNumber < BASES_32_LIMIT ? BASES_32 : BASES_64);
+	}
+
+	/**
+	 * Screens the whole block against the small primes first, one prime at a time over the array, with a
+	 * multiply and an unsigned compare instead of a division and without a branch per number. Only the
+	 * survivors go on to the Miller-Rabin rounds.
+	 */
+	@Override
+	public void checkAll(long[] in, BitSet out) {
+		int length = in.length;
+		long[] composite = new long[length];
+		for (int i = 0; i < length; i++) {
+			composite[i] = ~in[i] & 1;
+		}
+		for (int j = 0; j < SCREEN_PRIMES.length; j++) {
+			long inverse = SCREEN_INVERSES[j];
+			//flipping the sign bit turns the unsigned compare into a signed one
+			long limit = SCREEN_LIMITS[j] ^ Long.MIN_VALUE;
+			for (int i = 0; i < length; i++) {
+				composite[i] |= ((in[i] * inverse) ^ Long.MIN_VALUE) <= limit ? 1 : 0;
+			}
+		}
+
+		for (int i = 0; i < length; i++) {
+			long n = in[i];
+			if (n < SMALL_LIMIT) out.set(i, isSmallPrime(n));
+			else out.set(i, composite[i] == 0 && millerRabin(n, n < BASES_32_LIMIT ? BASES_32 : BASES_64));
+		}
+	}
+
+	static boolean isSmallPrime(long n) {
+		if (n < 3) return n == 2;
+		if ((n & 1) == 0) return false;
+		int bit = (int) (n >>> 1);
+		return (SMALL_BITMAP[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+	private static boolean millerRabin(long n, long[] bases) {
+		long d = n - 1;
+		int s = Long.numberOfTrailingZeros(d);
+		d >>>= s;
+
+		Montgomery m = new Montgomery(n);
+		long one = m.one;
+		long minusOne = n - one;
+
+		for (long base : bases) {
+			long a = base % n;
+			if (a == 0) continue;
+
+			long x = m.pow(m.toMontgomery(a), d);
+			if (x == one || x == minusOne) continue;
+
+			boolean witness = true;
+			for (int r = 1; r < s; r++) {
+				x = m.multiply(x, x);
+				if (x == minusOne) {
+					witness = false;
+					break;
+				}
+			}
+			if (witness) return false;
+		}
+		return true;
+	}
+
+	//n^-1 mod 2^64 for odd n, by Newton iteration: each step doubles the correct low bits (n is its own inverse mod 8)
+	static long inverse(long n) {
+		long inverse = n;
+		for (int i = 0; i < 5; i++) inverse *= 2 - n * inverse;
+		return inverse;
+	}
+
+	/**
+	 * Arithmetic modulo an odd n < 2^63 in Montgomery form with R = 2^64.
+	 */
+	private static final class Montgomery {
+		private final long n;
+		private final long negInverse;
+		private final long one;
+		private final long rSquared;
+
+		Montgomery(long n) {
+			this.n = n;
+			negInverse = -inverse(n);
+			one = Long.remainderUnsigned(-n, n);
+			long r2 = one;
+			for (int i = 0; i < 64; i++) {
+				r2 <<= 1;
+				if (r2 < 0 || r2 >= n) r2 -= n;
+			}
+			rSquared = r2;
+		}
+
+		long toMontgomery(long a) {
+			return multiply(a, rSquared);
+		}
+
+		long multiply(long a, long b) {
+			return reduce(unsignedMultiplyHigh(a, b), a * b);
+		}
+
+		long pow(long base, long exponent) {
+			long result = one;
+			while (exponent != 0) {
+				if ((exponent & 1) != 0) result = multiply(result, base);
+				base = multiply(base, base);
+				exponent >>>= 1;
+			}
+			return result;
+		}
+
+		//REDC of the 128-bit value hi:lo, both inputs below n so the result is below 2n < 2^64
+		private long reduce(long hi, long lo) {
+			long m = lo * negInverse;
+			long t = hi + unsignedMultiplyHigh(m, n) + (lo != 0 ? 1 : 0);
+			return Long.compareUnsigned(t, n) >= 0 ? t - n : t;
+		}
+	}
+
+	/**
+	 * High 64 bits of the unsigned 128-bit product: the signed Math.multiplyHigh intrinsic, corrected for
+	 * operands with the top bit set.
+	 */
+	static long unsignedMultiplyHigh(long x, long y) {
+		return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+	}
+
+	private static long[] buildSmallBitmap() {
+		//bit i stands for 2i + 1, set when it is prime
+		long[] bitmap = new long[SMALL_LIMIT / 128];
+		Arrays.fill(bitmap, -1L);
+		bitmap[0] &= ~1L;
+		for (int p = 3; p * p < SMALL_LIMIT; p += 2) {
+			if ((bitmap[p >>> 7] & (1L << (p >>> 1))) == 0) continue;
+			for (int m = p * p; m < SMALL_LIMIT; m += 2 * p) {
+				bitmap[m >>> 7] &= ~(1L << (m >>> 1));
+			}
+		}
+		return bitmap;
+	}
+}
@@ -0,0 +1,146 @@
+package com.demo.folder.primes;
+
+import com.demo.folder.collections.LongArrayList;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+
+/**
+ * Sieves consecutive segments on a work-stealing ForkJoinPool and hands the primes back strictly in order.
+ * Each batch is {@code parallelism * SEGMENTS_PER_THREAD} segments, split recursively so idle workers
+ * can steal halves. Every segment writes into its own slot, so reassembly is just reading the slots in
+ * order. The next batch is already running while the caller consumes the current one.
+ */
+public class ParallelPrimeGenerator implements PrimeBatchSource {
+
+	private static final int SEGMENTS_PER_THREAD = 4;
+
+	private final ForkJoinPool pool;
+	private final int segmentBytes;
+	private final long segmentSpan;
+	private final int segmentsPerBatch;
+
+	//shared, read-only base primes, rebuilt (never modified) when a batch reaches past baseLimit squared
+	private int[] basePrimes = new int[0];
+	private int baseLimit = 2;
+
+	private long nextBatchStart;
+	private Batch pending;
+	private long upperBound;
+
+	public ParallelPrimeGenerator(int parallelism) {
+		this(parallelism, SegmentedSieve.DEFAULT_SEGMENT_BYTES);
+	}
+
+	public ParallelPrimeGenerator(int parallelism, int segmentBytes) {
+		this(parallelism, segmentBytes, 0);
+	}
+
+	/**
+	 * Starts the stream at the first prime that is {@code >= start}.
+	 */
+	public ParallelPrimeGenerator(int parallelism, int segmentBytes, long start) {
+		if (start < 0) throw new IllegalArgumentException("start must not be negative: " + start);
+		if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+		this.pool = new ForkJoinPool(parallelism);
+		this.segmentBytes = segmentBytes;
+		this.segmentSpan = new SegmentedSieve(segmentBytes).segmentSpan();
+		this.segmentsPerBatch = parallelism * SEGMENTS_PER_THREAD;
+		this.nextBatchStart = start;
+		this.upperBound = start;
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	@Override
+	public int nextBatch(LongConsumer sink) {
+		Batch batch = pending != null ? pending : submitBatch();
+		batch.join();
+		pending = submitBatch();
+
+		int count = 0;
+		for (LongArrayList primes : batch.results) {
+			for (int i = 0; i < primes.size(); i++) {
+				sink.accept(primes.get(i));
+			}
+			count += primes.size();
+		}
+		upperBound = batch.end;
+		return count;
+	}
+
+	@Override
+	public long upperBound() {
+		return upperBound;
+	}
+
+	@Override
+	public void close() {
+		pool.shutdownNow();
+	}
+
+	private Batch submitBatch() {
+		long start = nextBatchStart;
+		long end = start + segmentsPerBatch * segmentSpan;
+		if ((long) baseLimit * baseLimit < end) {
+			long limit = Math.max(2L * baseLimit, SegmentedSieve.isqrt(end) + 1);
+			if (limit > Integer.MAX_VALUE - 1) throw new IllegalStateException("sieve exhausted the 63-bit range");
+			baseLimit = (int) limit;
+			basePrimes = SegmentedSieve.oddPrimesUpTo(baseLimit);
+		}
+		nextBatchStart = end;
+
+		Batch batch = new Batch(start, end, basePrimes, baseLimit);
+		pool.execute(batch.task);
+		return batch;
+	}
+
+	private final class Batch {
+		private final long start;
+		private final long end;
+		private final int[] basePrimes;
+		private final int baseLimit;
+		private final LongArrayList[] results = new LongArrayList[segmentsPerBatch];
+		private final ForkJoinTask<Void> task = new SegmentRange(0, segmentsPerBatch);
+
+		Batch(long start, long end, int[] basePrimes, int baseLimit) {
+			this.start = start;
+			this.end = end;
+			this.basePrimes = basePrimes;
+			this.baseLimit = baseLimit;
+		}
+
+		void join() {
+			task.join();
+		}
+
+		private final class SegmentRange extends RecursiveAction {
+			private static final long serialVersionUID = 1L;
+
+			private final int from;
+			private final int to;
+
+			SegmentRange(int from, int to) {
+				this.from = from;
+				this.to = to;
+			}
+
+			@Override
+			protected void compute() {
+				if (to - from > 1) {
+					int middle = (from + to) >>> 1;
+					invokeAll(new SegmentRange(from, middle), new SegmentRange(middle, to));
+					return;
+				}
+				long segmentStart = start + from * segmentSpan;
+				LongArrayList primes = new LongArrayList();
+				new SegmentedSieve(segmentStart, segmentBytes, basePrimes, baseLimit).nextSegment(primes::add);
+				results[from] = primes;
+			}
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.demo.folder.primes;
+
+import java.util.BitSet;
+import java.util.function.LongPredicate;
+
+/**
+ * Primitive primality test, so callers never box the number under test or the answer.
+ */
+@FunctionalInterface
+public interface PrimalityChecker extends LongPredicate {
+
+	boolean isPrime(long testNumber);
+
+	/**
+	 * Tests a whole block at once: bit {@code i} of {@code out} is set when {@code in[i]} is prime and cleared
+	 * otherwise. Implementations can override it with loops that work across the block instead of per number.
+	 */
+	default void checkAll(long[] in, BitSet out) {
+		for (int i = 0; i < in.length; i++) {
+			out.set(i, isPrime(in[i]));
+		}
+	}
+
+	@Override
+	default boolean test(long value) {
+		return isPrime(value);
+	}
+}
@@ -0,0 +1,62 @@
+package com.demo.folder.primes;
+
+/**
+ * The primality tests the benchmarks compare, from the naive one the demo starts with to the fastest.
+ */
+public enum PrimalityStrategy implements PrimalityChecker {
+
+	/**
+	 * Divides by every number below the candidate, like the original NumberChecker.
+	 */
+	TRIAL_DIVISION {
+		@Override
+		public boolean isPrime(long testNumber) {
+			if (testNumber < 2) return false;
+			for (long i = 2; i < testNumber; i++) {
+				if (testNumber % i == 0) return false;
+			}
+			return true;
+		}
+	},
+
+	/**
+	 * Stops at the square root, since any factor above it pairs with one below it.
+	 */
+	SQRT_TRIAL_DIVISION {
+		@Override
+		public boolean isPrime(long testNumber) {
+			if (testNumber < 2) return false;
+			for (long i = 2; i <= testNumber / i; i++) {
+				if (testNumber % i == 0) return false;
+			}
+			return true;
+		}
+	},
+
+	/**
+	 * Every prime above 3 is 6k - 1 or 6k + 1, so only a third of the divisors up to the root are tried.
+	 */
+	WHEEL_6K {
+		@Override
+		public boolean isPrime(long testNumber) {
+			if (testNumber < 4) return testNumber >= 2;
+			if (testNumber % 2 == 0 || testNumber % 3 == 0) return false;
+			for (long i = 5; i <= testNumber / i; i += 6) {
+				if (testNumber % i == 0 || testNumber % (i + 2) == 0) return false;
+			}
+			return true;
+		}
+	},
+
+	/**
+	 * Deterministic Miller-Rabin, logarithmic in the candidate instead of proportional to its root.
+	 */
+	MILLER_RABIN {
+		private final MillerRabinChecker checker = new MillerRabinChecker();
+
+		@Override
+		public boolean isPrime(long testNumber) {
+			return checker.isPrime(testNumber);
+		}
+	}
+}
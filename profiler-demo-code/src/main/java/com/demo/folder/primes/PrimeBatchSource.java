@@ -0,0 +1,25 @@
+package com.demo.folder.primes;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Produces primes in ascending order, a batch at a time, with no fixed upper bound.
+ */
+public interface PrimeBatchSource extends AutoCloseable {
+
+	/**
+	 * Hands the next batch of primes to {@code sink} in ascending order.
+	 *
+	 * @return the number of primes emitted.
+	 */
+	int nextBatch(LongConsumer sink);
+
+	/**
+	 * Every prime below this bound has already been emitted.
+	 */
+	long upperBound();
+
+	@Override
+	default void close() {
+	}
+}
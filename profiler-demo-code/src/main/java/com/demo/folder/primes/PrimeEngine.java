@@ -0,0 +1,77 @@
+package com.demo.folder.primes;
+
+/**
+ * How a PrimeNumbersTask produces its primes. Picked on the command line with
+ * {@code --engine=trial|mr|sieve|parallel}, plus {@code --parallelism=N} for the parallel sieve.
+ */
+public enum PrimeEngine {
+	TRIAL_DIVISION("trial"),
+	MILLER_RABIN("mr"),
+	SEGMENTED_SIEVE("sieve"),
+	PARALLEL_SIEVE("parallel");
+
+	private static final String SWITCH = "--engine=";
+	private static final String PARALLELISM_SWITCH = "--parallelism=";
+
+	private final String switchName;
+
+	PrimeEngine(String switchName) {
+		this.switchName = switchName;
+	}
+
+	public String getSwitchName() {
+		return switchName;
+	}
+
+	/**
+	 * Sieving engines produce whole batches through a {@link PrimeBatchSource}, the others test one candidate at a time.
+	 */
+	public boolean isBatched() {
+		return this == SEGMENTED_SIEVE || this == PARALLEL_SIEVE;
+	}
+
+	public PrimeBatchSource newBatchSource(int parallelism) {
+		return newBatchSource(0, parallelism);
+	}
+
+	/**
+	 * A batch source whose first prime is the first one {@code >= start}.
+	 */
+	public PrimeBatchSource newBatchSource(long start, int parallelism) {
+		switch (this) {
+			case SEGMENTED_SIEVE:
+				return new SegmentedSieve(start, SegmentedSieve.DEFAULT_SEGMENT_BYTES);
+			case PARALLEL_SIEVE:
+				return new ParallelPrimeGenerator(parallelism, SegmentedSieve.DEFAULT_SEGMENT_BYTES, start);
+			default:
+				throw new UnsupportedOperationException(this + " tests candidates one at a time");
+		}
+	}
+
+	public static PrimeEngine forName(String name) {
+		for (PrimeEngine engine : values()) {
+			if (engine.switchName.equalsIgnoreCase(name) || engine.name().equalsIgnoreCase(name)) return engine;
+		}
+		throw new IllegalArgumentException("Unknown prime engine: " + name);
+	}
+
+	/**
+	 * Returns the engine selected by an {@code --engine=} switch, or trial division when there is none.
+	 */
+	public static PrimeEngine fromArgs(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith(SWITCH)) return forName(arg.substring(SWITCH.length()));
+		}
+		return TRIAL_DIVISION;
+	}
+
+	/**
+	 * Returns the {@code --parallelism=} switch, or the number of available processors when there is none.
+	 */
+	public static int parallelismFromArgs(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith(PARALLELISM_SWITCH)) return Integer.parseInt(arg.substring(PARALLELISM_SWITCH.length()));
+		}
+		return Runtime.getRuntime().availableProcessors();
+	}
+}
@@ -0,0 +1,162 @@
+package com.demo.folder.primes;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Precomputed primes below a fixed limit, stored in a file as an odd-only bitmap and memory-mapped, so a
+ * lookup is one bit test on a page the OS already has cached, and a warm start doesn't sieve anything.
+ * Numbers at or above the limit are answered by a {@link MillerRabinChecker}.
+ * <p>
+ * The file is a 16 byte header (magic, version, limit) followed by the bitmap, little-endian, where bit
+ * {@code i} is set when {@code 2i + 1} is prime.
+ */
+public final class PrimeTable implements PrimalityChecker {
+
+	public static final long DEFAULT_LIMIT = 1L << 30;
+	//one mapping is at most 2 GiB, and each byte covers 16 numbers
+	public static final long MAX_LIMIT = 1L << 34;
+
+	private static final int MAGIC = 0x544d5250;
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 16;
+
+	private static final String SWITCH = "--prime-table=";
+
+	private final MappedByteBuffer bitmap;
+	private final long limit;
+	private final PrimalityChecker beyondLimit = new MillerRabinChecker();
+
+	private PrimeTable(MappedByteBuffer bitmap, long limit) {
+		this.bitmap = bitmap;
+		this.limit = limit;
+	}
+
+	/**
+	 * Every prime below this bound is in the table.
+	 */
+	public long limit() {
+		return limit;
+	}
+
+	@Override
+	public boolean isPrime(long testNumber) {
+		if (testNumber >= limit) return beyondLimit.isPrime(testNumber);
+		if (testNumber < 3) return testNumber == 2;
+		if ((testNumber & 1) == 0) return false;
+		long bit = testNumber >>> 1;
+		return (bitmap.get(HEADER_BYTES + (int) (bit >>> 3)) & (1 << (bit & 7))) != 0;
+	}
+
+	/**
+	 * Hands every prime in {@code [from, min(to, limit))} to {@code sink} in ascending order.
+	 *
+	 * @return the number of primes emitted.
+	 */
+	public int forEachPrime(long from, long to, LongConsumer sink) {
+		to = Math.min(to, limit);
+		int count = 0;
+		if (from <= 2 && to > 2) {
+			sink.accept(2);
+			count++;
+		}
+		long firstBit = Math.max(from, 3) >>> 1;
+		long endBit = to >>> 1;
+		for (long word = firstBit >>> 6; word << 6 < endBit; word++) {
+			long bits = bitmap.getLong(HEADER_BYTES + (int) (word << 3));
+			//mask off the bits before firstBit and from endBit on
+			if (word == firstBit >>> 6) bits &= -1L << firstBit;
+			if (word == (endBit - 1) >>> 6 && (endBit & 63) != 0) bits &= -1L >>> (64 - endBit);
+			long base = (word << 7) + 1;
+			while (bits != 0) {
+				sink.accept(base + 2L * Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Maps a table written by {@link #create(Path, long)}.
+	 */
+	public static PrimeTable map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_BYTES) throw new IOException("Not a prime table: " + file);
+			//the mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.getInt(0) != MAGIC) throw new IOException("Not a prime table: " + file);
+			if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported prime table version " + buffer.getInt(4) + ": " + file);
+			long limit = buffer.getLong(8);
+			if (limit < 0 || limit > MAX_LIMIT || channel.size() != HEADER_BYTES + bitmapBytes(limit)) {
+				throw new IOException("Prime table is truncated or corrupt: " + file);
+			}
+			return new PrimeTable(buffer, limit);
+		}
+	}
+
+	/**
+	 * Sieves every prime below {@code limit} into a new table at {@code file} and maps it. The file is written
+	 * next to its destination and moved into place, so a reader never sees half a table.
+	 */
+	public static PrimeTable create(Path file, long limit) throws IOException {
+		if (limit < 0 || limit > MAX_LIMIT) throw new IllegalArgumentException("limit must be between 0 and " + MAX_LIMIT + ": " + limit);
+		Path absolute = file.toAbsolutePath();
+		Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + bitmapBytes(limit));
+				buffer.order(ByteOrder.LITTLE_ENDIAN);
+				buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, limit);
+
+				SegmentedSieve sieve = new SegmentedSieve(0, SegmentedSieve.MAX_SEGMENT_BYTES / 16);
+				while (sieve.upperBound() < limit) {
+					sieve.nextSegment(prime -> {
+						if (prime >= limit || prime == 2) return;
+						int index = HEADER_BYTES + (int) (prime >>> 4);
+						buffer.put(index, (byte) (buffer.get(index) | (1 << ((prime >>> 1) & 7))));
+					});
+				}
+				buffer.force();
+			}
+			Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(temporary);
+		}
+		return map(absolute);
+	}
+
+	/**
+	 * Maps the table at {@code file}, creating it with {@code limit} first if it doesn't exist yet.
+	 */
+	public static PrimeTable mapOrCreate(Path file, long limit) throws IOException {
+		return Files.exists(file) ? map(file) : create(file, limit);
+	}
+
+	/**
+	 * Maps (or creates) the table named by a {@code --prime-table=} switch, or returns null when there is none.
+	 */
+	public static PrimeTable fromArgs(String[] args) throws IOException {
+		for (String arg : args) {
+			if (arg.startsWith(SWITCH)) return mapOrCreate(Paths.get(arg.substring(SWITCH.length())), DEFAULT_LIMIT);
+		}
+		return null;
+	}
+
+	//rounded up to whole longs, so forEachPrime can always read a full word
+	private static long bitmapBytes(long limit) {
+		//one bit for each odd number below limit
+		long bits = limit >>> 1;
+		return (bits + 63) >>> 6 << 3;
+	}
+}
@@ -0,0 +1,227 @@
+package com.demo.folder.primes;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Segmented Sieve of Eratosthenes that streams primes in ascending order, one segment at a time.
+ * Each segment is an odd-only bitmap, so the default 32 KiB buffer (one L1 data cache) covers
+ * 524,288 consecutive integers. There is no fixed upper bound: the base primes are extended
+ * on demand as the segments move up.
+ */
+public class SegmentedSieve implements PrimeBatchSource {
+
+	public static final int DEFAULT_SEGMENT_BYTES = 32 * 1024;
+	public static final int MAX_SEGMENT_BYTES = 16 * 1024 * 1024;
+
+	private final long[] segment;
+	private final int segmentBits;
+	private final long segmentSpan;
+
+	//odd base primes and, for the active ones, the next odd multiple still to be crossed off
+	private int[] basePrimes = new int[64];
+	private long[] nextMultiples = new long[64];
+	private int baseCount;
+	private int activeCount;
+	private int baseLimit = 2;
+
+	//first (odd) number of the next segment
+	private long low;
+	private boolean twoEmitted;
+
+	public SegmentedSieve() {
+		this(0, DEFAULT_SEGMENT_BYTES);
+	}
+
+	public SegmentedSieve(int segmentBytes) {
+		this(0, segmentBytes);
+	}
+
+	/**
+	 * Starts the stream at the first prime that is {@code >= start}.
+	 */
+	public SegmentedSieve(long start, int segmentBytes) {
+		if (start < 0) throw new IllegalArgumentException("start must not be negative: " + start);
+		if (segmentBytes < 8 || segmentBytes > MAX_SEGMENT_BYTES || segmentBytes % 8 != 0) {
+			throw new IllegalArgumentException("segmentBytes must be a multiple of 8 between 8 and " + MAX_SEGMENT_BYTES + ": " + segmentBytes);
+		}
+		segment = new long[segmentBytes / 8];
+		segmentBits = segmentBytes * 8;
+		segmentSpan = 2L * segmentBits;
+		low = Math.max(1, start | 1);
+		twoEmitted = start > 2;
+	}
+
+	/**
+	 * Starts with base primes computed elsewhere (every odd prime up to {@code baseLimit}), so that many
+	 * sieves over different ranges don't each rebuild them. The array is never written to.
+	 */
+	SegmentedSieve(long start, int segmentBytes, int[] sharedBasePrimes, int baseLimit) {
+		this(start, segmentBytes);
+		//full to its length, so extending copies it before appending anything
+		basePrimes = sharedBasePrimes;
+		nextMultiples = new long[sharedBasePrimes.length];
+		baseCount = sharedBasePrimes.length;
+		this.baseLimit = baseLimit;
+	}
+
+	public long segmentSpan() {
+		return segmentSpan;
+	}
+
+	/**
+	 * Every prime from the start of the stream up to (but excluding) this bound has already been emitted.
+	 */
+	@Override
+	public long upperBound() {
+		return twoEmitted ? low : 2;
+	}
+
+	@Override
+	public int nextBatch(LongConsumer sink) {
+		return nextSegment(sink);
+	}
+
+	/**
+	 * Sieves the next segment and hands its primes to {@code sink} in ascending order.
+	 *
+	 * @return the number of primes emitted.
+	 */
+	public int nextSegment(LongConsumer sink) {
+		int count = 0;
+		if (!twoEmitted) {
+			twoEmitted = true;
+			sink.accept(2);
+			count++;
+		}
+
+		long high = low + segmentSpan;
+		activateBasePrimes(high);
+
+		Arrays.fill(segment, 0L);
+		if (low == 1) segment[0] = 1L;
+
+		for (int i = 0; i < activeCount; i++) {
+			int p = basePrimes[i];
+			long offset = (nextMultiples[i] - low) >>> 1;
+			if (offset >= segmentBits) continue;
+
+			int bit = (int) offset;
+			if (p < segmentBits) {
+				for (; bit < segmentBits; bit += p) {
+					segment[bit >>> 6] |= 1L << bit;
+				}
+				nextMultiples[i] = low + 2L * bit;
+			}
+			else {
+				//large base primes hit a segment at most once
+				segment[bit >>> 6] |= 1L << bit;
+				nextMultiples[i] += 2L * p;
+			}
+		}
+
+		for (int w = 0; w < segment.length; w++) {
+			long candidates = ~segment[w];
+			long base = low + ((long) w << 7);
+			while (candidates != 0) {
+				sink.accept(base + 2L * Long.numberOfTrailingZeros(candidates));
+				candidates &= candidates - 1;
+				count++;
+			}
+		}
+
+		low = high;
+		return count;
+	}
+
+	/**
+	 * Unbounded iterator over the primes, refilled one segment at a time.
+	 */
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			private long[] batch = new long[1024];
+			private int size;
+			private int position;
+
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public long nextLong() {
+				while (position == size) {
+					size = 0;
+					position = 0;
+					nextSegment(this::append);
+				}
+				return batch[position++];
+			}
+
+			private void append(long prime) {
+				if (size == batch.length) batch = Arrays.copyOf(batch, size * 2);
+				batch[size++] = prime;
+			}
+		};
+	}
+
+	private void activateBasePrimes(long high) {
+		while (true) {
+			while (activeCount < baseCount) {
+				long p = basePrimes[activeCount];
+				if (p * p >= high) return;
+				nextMultiples[activeCount++] = firstOddMultiple(p, low);
+			}
+			if ((long) baseLimit * baseLimit >= high) return;
+			extendBasePrimes(Math.max(2L * baseLimit, isqrt(high) + 1));
+		}
+	}
+
+	private void extendBasePrimes(long limit) {
+		if (limit > Integer.MAX_VALUE - 1) throw new IllegalStateException("sieve exhausted the 63-bit range");
+		int newLimit = (int) limit;
+		for (int p : oddPrimesUpTo(newLimit)) {
+			if (p <= baseLimit) continue;
+			if (baseCount == basePrimes.length) {
+				int capacity = Math.max(64, baseCount * 2);
+				basePrimes = Arrays.copyOf(basePrimes, capacity);
+				nextMultiples = Arrays.copyOf(nextMultiples, capacity);
+			}
+			basePrimes[baseCount++] = p;
+		}
+		baseLimit = newLimit;
+	}
+
+	/**
+	 * Plain (unsegmented) sieve for the base primes: every odd prime {@code <= limit}.
+	 */
+	static int[] oddPrimesUpTo(int limit) {
+		boolean[] composite = new boolean[limit + 1];
+		int count = 0;
+		for (int p = 3; p <= limit; p += 2) {
+			if (composite[p]) continue;
+			count++;
+			for (long m = (long) p * p; m <= limit; m += 2 * p) composite[(int) m] = true;
+		}
+		int[] primes = new int[count];
+		count = 0;
+		for (int p = 3; p <= limit; p += 2) {
+			if (!composite[p]) primes[count++] = p;
+		}
+		return primes;
+	}
+
+	//smallest odd multiple of p that is >= max(p * p, from)
+	private static long firstOddMultiple(long p, long from) {
+		long m = Math.max(p * p, (from + p - 1) / p * p);
+		return (m & 1) == 0 ? m + p : m;
+	}
+
+	static long isqrt(long n) {
+		long r = (long) Math.sqrt((double) n);
+		while (r * r > n) r--;
+		while ((r + 1) * (r + 1) <= n) r++;
+		return r;
+	}
+}
@@ -0,0 +1,117 @@
+package com.demo.folder.primes;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+/**
+ * Wheel factorization for the candidate-at-a-time engines: past its own small primes, only numbers coprime to
+ * the wheel's modulus can be prime, so the other ones never reach the primality check. The mod 30 wheel lets
+ * 8 of every 30 numbers (27%) through, the mod 210 wheel 48 of every 210 (23%).
+ * Picked on the command line with {@code --wheel=none|30|210}.
+ */
+public enum Wheel {
+	NONE("none"),
+	MOD_30("30", 2, 3, 5),
+	MOD_210("210", 2, 3, 5, 7);
+
+	private static final String SWITCH = "--wheel=";
+
+	private final String switchName;
+	private final long[] primes;
+	private final int modulus;
+	private final int[] residues;
+
+	Wheel(String switchName, long... primes) {
+		this.switchName = switchName;
+		this.primes = primes;
+		int product = 1;
+		for (long p : primes) product *= (int) p;
+		modulus = product;
+
+		int[] coprime = new int[modulus];
+		int count = 0;
+		for (int r = 0; r < modulus; r++) {
+			boolean isCoprime = true;
+			for (long p : primes) {
+				if (r % p == 0) isCoprime = false;
+			}
+			if (isCoprime) coprime[count++] = r;
+		}
+		residues = Arrays.copyOf(coprime, count);
+	}
+
+	public String getSwitchName() {
+		return switchName;
+	}
+
+	public int modulus() {
+		return modulus;
+	}
+
+	/**
+	 * Share of the integers that the wheel lets through.
+	 */
+	public double density() {
+		return (double) residues.length / modulus;
+	}
+
+	/**
+	 * Ascending candidates from {@code start} on: the wheel's own primes, then every number coprime to the modulus.
+	 * Every prime {@code >= start} is among them.
+	 */
+	public PrimitiveIterator.OfLong candidates(long start) {
+		return new Candidates(Math.max(start, 2));
+	}
+
+	public static Wheel forName(String name) {
+		for (Wheel wheel : values()) {
+			if (wheel.switchName.equalsIgnoreCase(name) || wheel.name().equalsIgnoreCase(name)) return wheel;
+		}
+		throw new IllegalArgumentException("Unknown wheel: " + name);
+	}
+
+	/**
+	 * Returns the wheel selected by a {@code --wheel=} switch, or none (every integer is a candidate) when there is none.
+	 */
+	public static Wheel fromArgs(String[] args) {
+		for (String arg : args) {
+			if (arg.startsWith(SWITCH)) return forName(arg.substring(SWITCH.length()));
+		}
+		return NONE;
+	}
+
+	private final class Candidates implements PrimitiveIterator.OfLong {
+		private int primeIndex;
+		//the next candidate past the small primes is base + residues[index]
+		private long base;
+		private int index;
+
+		Candidates(long start) {
+			while (primeIndex < primes.length && primes[primeIndex] < start) primeIndex++;
+			base = start - start % modulus;
+			while (base + residues[index] < start) {
+				if (++index == residues.length) {
+					index = 0;
+					base += modulus;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return true;
+		}
+
+		@Override
+		public long nextLong() {
+			//no small prime is coprime to the modulus, and the only coprime number below them is 1, so this stays ascending
+			if (primeIndex < primes.length) return primes[primeIndex++];
+			long candidate = base + residues[index];
+			if (++index == residues.length) {
+				index = 0;
+				base += modulus;
+			}
+			return candidate;
+		}
+	}
+}
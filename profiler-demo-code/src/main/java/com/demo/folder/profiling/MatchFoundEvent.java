@@ -0,0 +1,26 @@
+package com.demo.folder.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A number the combining stage found in every one of its inputs.
+ */
+@Name("com.demo.folder.MatchFound")
+@Label("Match Found")
+@Category("Profiler Demo")
+@StackTrace(false)
+public class MatchFoundEvent extends jdk.jfr.Event {
+
+	@Label("Number")
+	long number;
+
+	public static void emit(long number) {
+		MatchFoundEvent event = new MatchFoundEvent();
+		if (!event.shouldCommit()) return;
+		event.number = number;
+		event.commit();
+	}
+}
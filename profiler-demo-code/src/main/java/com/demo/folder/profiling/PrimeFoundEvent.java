@@ -0,0 +1,33 @@
+package com.demo.folder.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Primes a stage has found. The engines check, sieve or replay them a block at a time, so one event
+ * covers {@code count} primes up to {@code prime} rather than one event per prime.
+ */
+@Name("com.demo.folder.PrimeFound")
+@Label("Prime Found")
+@Category("Profiler Demo")
+@Description("Primes found since the previous event of the same thread")
+@StackTrace(false)
+public class PrimeFoundEvent extends jdk.jfr.Event {
+
+	@Label("Largest Prime")
+	long prime;
+
+	@Label("Count")
+	int count;
+
+	public static void emit(long prime, int count) {
+		PrimeFoundEvent event = new PrimeFoundEvent();
+		if (!event.shouldCommit()) return;
+		event.prime = prime;
+		event.count = count;
+		event.commit();
+	}
+}
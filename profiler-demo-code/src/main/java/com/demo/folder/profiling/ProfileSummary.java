@@ -0,0 +1,163 @@
+package com.demo.folder.profiling;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a recording says about a run: the methods most often on top of the stack, where allocation
+ * happened, which monitors and parks the threads waited on, and the counts of the demo's own events.
+ */
+public class ProfileSummary {
+
+	private final Map<String, Long> hotMethods = new HashMap<String, Long>();
+	private final Map<String, Long> allocationSites = new HashMap<String, Long>();
+	private final Map<String, Long> lockWaits = new HashMap<String, Long>();
+	private long executionSamples;
+	private long allocatedBytes;
+	private long lockWaitNanos;
+	private long primesFound;
+	private long largestPrime;
+	private long matchesFound;
+	private long queueFullCount;
+	private long queueFullNanos;
+
+	public static ProfileSummary read(Path recording) throws IOException {
+		ProfileSummary summary = new ProfileSummary();
+		try (RecordingFile file = new RecordingFile(recording)) {
+			while (file.hasMoreEvents()) summary.add(file.readEvent());
+		}
+		return summary;
+	}
+
+	void add(RecordedEvent event) {
+		switch (event.getEventType().getName()) {
+			case "jdk.ExecutionSample":
+				executionSamples++;
+				hotMethods.merge(topFrame(event), 1L, Long::sum);
+				break;
+			case "jdk.ObjectAllocationSample":
+				allocated(event, event.getLong("weight"));
+				break;
+			case "jdk.ObjectAllocationInNewTLAB":
+				allocated(event, event.getLong("tlabSize"));
+				break;
+			case "jdk.ObjectAllocationOutsideTLAB":
+				allocated(event, event.getLong("allocationSize"));
+				break;
+			case "jdk.JavaMonitorEnter":
+				waited("monitor " + className(event.getClass("monitorClass")), event.getDuration().toNanos());
+				break;
+			case "jdk.ThreadPark":
+				waited("park    " + className(event.getClass("parkedClass")), event.getDuration().toNanos());
+				break;
+			case "com.demo.folder.PrimeFound":
+				primesFound += event.getInt("count");
+				largestPrime = Math.max(largestPrime, event.getLong("prime"));
+				break;
+			case "com.demo.folder.MatchFound":
+				matchesFound++;
+				break;
+			case "com.demo.folder.QueueFull":
+				queueFullCount++;
+				queueFullNanos += event.getDuration().toNanos();
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void allocated(RecordedEvent event, long bytes) {
+		allocatedBytes += bytes;
+		allocationSites.merge(className(event.getClass("objectClass")) + " in " + topFrame(event), bytes, Long::sum);
+	}
+
+	private void waited(String key, long nanos) {
+		lockWaitNanos += nanos;
+		lockWaits.merge(key, nanos, Long::sum);
+	}
+
+	private static String topFrame(RecordedEvent event) {
+		RecordedStackTrace stackTrace = event.getStackTrace();
+		if (stackTrace == null || stackTrace.getFrames().isEmpty()) return "<no stack>";
+		RecordedFrame frame = stackTrace.getFrames().get(0);
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+	}
+
+	private static String className(RecordedClass recordedClass) {
+		return recordedClass == null ? "<unknown>" : recordedClass.getName();
+	}
+
+	public void print(PrintStream out, int top) {
+		out.printf("Hottest methods (%,d execution samples)%n", executionSamples);
+		for (Map.Entry<String, Long> entry : largest(hotMethods, top)) {
+			out.printf("  %5.1f%%  %s%n", percent(entry.getValue(), executionSamples), entry.getKey());
+		}
+		out.printf("Allocation sites (%,d MB sampled)%n", allocatedBytes >> 20);
+		for (Map.Entry<String, Long> entry : largest(allocationSites, top)) {
+			out.printf("  %5.1f%%  %s%n", percent(entry.getValue(), allocatedBytes), entry.getKey());
+		}
+		out.printf("Lock waits (%,d ms)%n", lockWaitNanos / 1000000);
+		for (Map.Entry<String, Long> entry : largest(lockWaits, top)) {
+			out.printf("  %,8d ms  %s%n", entry.getValue() / 1000000, entry.getKey());
+		}
+		out.printf("Primes found %,d (largest %,d), matches %,d, queue full %,d times (%,d ms)%n",
+				primesFound, largestPrime, matchesFound, queueFullCount, queueFullNanos / 1000000);
+	}
+
+	private static List<Map.Entry<String, Long>> largest(Map<String, Long> totals, int top) {
+		List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(totals.entrySet());
+		entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+		return entries.subList(0, Math.min(top, entries.size()));
+	}
+
+	private static double percent(long part, long whole) {
+		return whole == 0 ? 0 : 100.0 * part / whole;
+	}
+
+	public Map<String, Long> getHotMethods() {
+		return hotMethods;
+	}
+
+	public Map<String, Long> getAllocationSites() {
+		return allocationSites;
+	}
+
+	public Map<String, Long> getLockWaits() {
+		return lockWaits;
+	}
+
+	public long getExecutionSamples() {
+		return executionSamples;
+	}
+
+	public long getLockWaitNanos() {
+		return lockWaitNanos;
+	}
+
+	public long getPrimesFound() {
+		return primesFound;
+	}
+
+	public long getLargestPrime() {
+		return largestPrime;
+	}
+
+	public long getMatchesFound() {
+		return matchesFound;
+	}
+
+	public long getQueueFullCount() {
+		return queueFullCount;
+	}
+}
@@ -0,0 +1,77 @@
+package com.demo.folder.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Runs the bad or good version's Main under a JFR recording with the {@code profile} settings plus the demo's
+ * own events, then dumps the recording and prints a {@link ProfileSummary} of it. Everything else on the
+ * command line is passed on to Main, e.g.
+ * {@code --version=bad --jfr-seconds=30 --jfr-file=bad.jfr --jfr-top=10 --engine=sieve}.
+ */
+public class ProfilingLauncher {
+
+	//the profile settings only record waits over 10 ms, which hides most of the bad version's contention
+	private static final Duration LOCK_THRESHOLD = Duration.ofMillis(1);
+
+	public static void main(String[] args) throws IOException, ParseException, InterruptedException {
+		String version = option(args, "--version=", "good");
+		long seconds = Long.parseLong(option(args, "--jfr-seconds=", "30"));
+		Path file = Paths.get(option(args, "--jfr-file=", version + "-version.jfr"));
+		int top = Integer.parseInt(option(args, "--jfr-top=", "10"));
+
+		try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+			recording.setName("profiler-demo " + version);
+			recording.enable("jdk.JavaMonitorEnter").withThreshold(LOCK_THRESHOLD);
+			recording.enable("jdk.ThreadPark").withThreshold(LOCK_THRESHOLD);
+			recording.enable(PrimeFoundEvent.class);
+			recording.enable(MatchFoundEvent.class);
+			recording.enable(QueueFullEvent.class).withThreshold(Duration.ZERO);
+			recording.start();
+
+			//the versions' Mains don't stop their workers, so the run is cut off after the given time instead
+			Thread main = new Thread(() -> run(version, args), version + "Main");
+			main.setDaemon(true);
+			main.start();
+			main.join(seconds * 1000);
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		System.out.println("Recording written to " + file.toAbsolutePath());
+		ProfileSummary.read(file).print(System.out, top);
+		System.exit(0);
+	}
+
+	private static void run(String version, String[] args) {
+		try {
+			switch (version) {
+				case "bad":
+					com.demo.folder.bad_version.Main.main(args);
+					break;
+				case "good":
+					com.demo.folder.good_version.Main.main(args);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown version: " + version + " (expected bad or good)");
+			}
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	private static String option(String[] args, String name, String defaultValue) {
+		for (String arg : args) {
+			if (arg.startsWith(name)) return arg.substring(name.length());
+		}
+		return defaultValue;
+	}
+}
@@ -0,0 +1,44 @@
+package com.demo.folder.profiling;
+
+import com.demo.folder.concurrent.LongSpscRingBuffer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Time a producer spent parked because its consumer had fallen a whole buffer behind.
+ * Only the bounded queues of the good version can fill up, the bad version's lists just grow.
+ */
+@Name("com.demo.folder.QueueFull")
+@Label("Queue Full")
+@Category("Profiler Demo")
+@StackTrace(false)
+public class QueueFullEvent extends jdk.jfr.Event {
+
+	@Label("Queue")
+	String queue;
+
+	@Label("Capacity")
+	int capacity;
+
+	/**
+	 * {@link LongSpscRingBuffer#put(long)}, timed as an event when the buffer is full on entry.
+	 */
+	public static boolean put(LongSpscRingBuffer buffer, String queue, long value) {
+		if (buffer.size() < buffer.capacity()) return buffer.put(value);
+
+		QueueFullEvent event = new QueueFullEvent();
+		if (!event.isEnabled()) return buffer.put(value);
+		event.begin();
+		boolean published = buffer.put(value);
+		event.end();
+		if (event.shouldCommit()) {
+			event.queue = queue;
+			event.capacity = buffer.capacity();
+			event.commit();
+		}
+		return published;
+	}
+}
@@ -0,0 +1,51 @@
+package com.demo.folder.reactive_version;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Comparator;
+
+/**
+ * The numbers that are both prime and fibonnaci, found by merging the two ascending streams.
+ */
+public class CombinedNumbersFlux {
+
+	public static final int DEFAULT_PREFETCH = 256;
+
+	private PrimeNumbersFlux primeNumbersFlux;
+	private FibonnaciNumbersFlux fibonnaciNumbersFlux;
+	private int prefetch = DEFAULT_PREFETCH;
+	private Scheduler scheduler = Schedulers.parallel();
+
+	public void setPrimeNumbersFlux(PrimeNumbersFlux primeNumbersFlux) {
+		this.primeNumbersFlux = primeNumbersFlux;
+	}
+
+	public void setFibonnaciNumbersFlux(FibonnaciNumbersFlux fibonnaciNumbersFlux) {
+		this.fibonnaciNumbersFlux = fibonnaciNumbersFlux;
+	}
+
+	/**
+	 * How many numbers are requested from each input ahead of the merge, which bounds how far either can run ahead.
+	 */
+	public void setPrefetch(int prefetch) {
+		this.prefetch = prefetch;
+	}
+
+	public void setScheduler(Scheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	public Flux<Long> flux() {
+		Flux<Long> primes = primeNumbersFlux.flux().subscribeOn(scheduler);
+		//F(1) == F(2), and dropping the repeat makes both inputs strictly increasing
+		Flux<Long> fibonnacis = fibonnaciNumbersFlux.flux().distinctUntilChanged().subscribeOn(scheduler);
+
+		//the merge emits the smaller head first, so a number from both inputs comes out as two equal neighbours
+		return Flux.mergeComparing(prefetch, Comparator.<Long>naturalOrder(), primes, fibonnacis)
+				.bufferUntilChanged()
+				.filter(run -> run.size() == 2)
+				.map(run -> run.get(0));
+	}
+}
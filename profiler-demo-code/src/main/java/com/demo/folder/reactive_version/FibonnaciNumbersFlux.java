@@ -0,0 +1,19 @@
+package com.demo.folder.reactive_version;
+
+import com.demo.folder.sequence.FibonnaciSequence;
+import reactor.core.publisher.Flux;
+
+/**
+ * The fibonnaci numbers up to F(92) as a cold {@link Flux}, computed one term per request.
+ */
+public class FibonnaciNumbersFlux {
+
+	public Flux<Long> flux() {
+		return Flux.generate(FibonnaciSequence::new, (sequence, sink) -> {
+			//the last term that fits in a long, the same place the good_version task stops
+			if (sequence.hasNextLong()) sink.next(sequence.nextLong());
+			else sink.complete();
+			return sequence;
+		});
+	}
+}
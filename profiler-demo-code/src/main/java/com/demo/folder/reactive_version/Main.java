@@ -0,0 +1,42 @@
+package com.demo.folder.reactive_version;
+
+import com.demo.folder.primes.PrimeEngine;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Main {
+
+	public static void main(String[] args) {
+		int target = 100;
+		int parallelism = PrimeEngine.parallelismFromArgs(args);
+		Scheduler scheduler = Schedulers.newParallel("pipeline", parallelism);
+
+		PrimeNumbersFlux primeNumbersFlux = new PrimeNumbersFlux();
+		primeNumbersFlux.setEngine(PrimeEngine.fromArgs(args));
+		primeNumbersFlux.setParallelism(parallelism);
+		primeNumbersFlux.setScheduler(scheduler);
+
+		CombinedNumbersFlux combinedNumbersFlux = new CombinedNumbersFlux();
+		combinedNumbersFlux.setPrimeNumbersFlux(primeNumbersFlux);
+		combinedNumbersFlux.setFibonnaciNumbersFlux(new FibonnaciNumbersFlux());
+		combinedNumbersFlux.setScheduler(scheduler);
+
+		List<Long> combined = new ArrayList<Long>();
+		combinedNumbersFlux.flux()
+				.take(target)
+				.doOnNext(match -> {
+					combined.add(match);
+					System.out.println( "Currently got " + combined.size() + " matching numbers.");
+					System.out.println(combined);
+				})
+				.blockLast();
+		scheduler.dispose();
+
+		System.out.println("Job done  - found " + combined.size() + ".");
+		if (!combined.isEmpty()) System.out.println(combined);
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.demo.folder.reactive_version;
+
+import com.demo.folder.collections.LongArrayList;
+import com.demo.folder.good_version.NumberChecker;
+import com.demo.folder.primes.MillerRabinChecker;
+import com.demo.folder.primes.PrimalityChecker;
+import com.demo.folder.primes.PrimeBatchSource;
+import com.demo.folder.primes.PrimeEngine;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The primes as a cold, unbounded {@link Flux}. Nothing is generated until it is requested, so a slow
+ * subscriber holds generation back instead of letting it run ahead into an ever-growing list.
+ */
+public class PrimeNumbersFlux {
+
+	//odd candidates per chunk handed to the scheduler when testing one number at a time
+	private static final int CHUNK = 1024;
+
+	private PrimeEngine engine = PrimeEngine.TRIAL_DIVISION;
+	private int parallelism = 1;
+	private Scheduler scheduler = Schedulers.parallel();
+
+	public void setEngine(PrimeEngine engine) {
+		this.engine = engine;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public void setScheduler(Scheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	public Flux<Long> flux() {
+		if (engine.isBatched()) return batches();
+
+		PrimalityChecker checker = engine == PrimeEngine.MILLER_RABIN ? new MillerRabinChecker() : new NumberChecker();
+		//chunks are tested on up to parallelism workers at once, and flatMapSequential puts them back in order
+		Flux<Long> odd = Flux.<Long, Long>generate(() -> 3L, (from, sink) -> {
+					sink.next(from);
+					return from + 2L * CHUNK;
+				})
+				.flatMapSequential(from -> Mono.fromCallable(() -> primesInChunk(checker, from)).subscribeOn(scheduler), parallelism, 1)
+				.flatMapIterable(chunk -> chunk);
+		return Flux.concat(Mono.just(2L), odd);
+	}
+
+	private static List<Long> primesInChunk(PrimalityChecker checker, long from) {
+		List<Long> primes = new ArrayList<Long>();
+		for (long candidate = from; candidate < from + 2L * CHUNK; candidate += 2) {
+			if (checker.isPrime(candidate)) primes.add(candidate);
+		}
+		return primes;
+	}
+
+	//one batch is sieved each time the previous one has been requested in full
+	private Flux<Long> batches() {
+		return Flux.generate(() -> new BatchState(engine.newBatchSource(parallelism)), PrimeNumbersFlux::emit, BatchState::close)
+				.subscribeOn(scheduler);
+	}
+
+	private static BatchState emit(BatchState state, SynchronousSink<Long> sink) {
+		while (state.position == state.batch.size()) {
+			state.batch.clear();
+			state.position = 0;
+			state.source.nextBatch(state.batch::add);
+		}
+		sink.next(state.batch.get(state.position++));
+		return state;
+	}
+
+	private static final class BatchState {
+		private final PrimeBatchSource source;
+		private final LongArrayList batch = new LongArrayList();
+		private int position;
+
+		BatchState(PrimeBatchSource source) {
+			this.source = source;
+		}
+
+		void close() {
+			source.close();
+		}
+	}
+}
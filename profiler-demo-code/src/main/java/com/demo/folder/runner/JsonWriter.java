@@ -0,0 +1,103 @@
+package com.demo.folder.runner;
+
+/**
+ * Just enough of a JSON writer for the runner's flat results: objects, arrays, strings and numbers,
+ * with the commas worked out from what came before.
+ */
+class JsonWriter {
+
+	private final StringBuilder out = new StringBuilder();
+	private boolean needsComma;
+
+	JsonWriter beginObject() {
+		separate();
+		out.append('{');
+		needsComma = false;
+		return this;
+	}
+
+	JsonWriter endObject() {
+		out.append('}');
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter beginArray() {
+		separate();
+		out.append('[');
+		needsComma = false;
+		return this;
+	}
+
+	JsonWriter endArray() {
+		out.append(']');
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter name(String name) {
+		separate();
+		string(name);
+		out.append(':');
+		needsComma = false;
+		return this;
+	}
+
+	JsonWriter value(String value) {
+		separate();
+		if (value == null) out.append("null");
+		else string(value);
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter value(long value) {
+		separate();
+		out.append(value);
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter value(double value) {
+		separate();
+		//NaN and the infinities aren't valid JSON numbers
+		if (Double.isNaN(value) || Double.isInfinite(value)) out.append("null");
+		else out.append(Math.round(value * 1000) / 1000.0);
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter value(boolean value) {
+		separate();
+		out.append(value);
+		needsComma = true;
+		return this;
+	}
+
+	JsonWriter nullValue() {
+		separate();
+		out.append("null");
+		needsComma = true;
+		return this;
+	}
+
+	private void separate() {
+		if (needsComma) out.append(',');
+	}
+
+	private void string(String value) {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') out.append('\\').append(c);
+			else if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+			else out.append(c);
+		}
+		out.append('"');
+	}
+
+	@Override
+	public String toString() {
+		return out.toString();
+	}
+}
@@ -0,0 +1,158 @@
+package com.demo.folder.runner;
+
+import com.demo.folder.concurrent.ExecutionMode;
+import com.demo.folder.good_version.FibonnaciNumbersTask;
+import com.demo.folder.good_version.Pipeline;
+import com.demo.folder.good_version.PrimeNumbersTask;
+import com.demo.folder.primes.PrimeEngine;
+import com.demo.folder.primes.PrimeTable;
+import com.demo.folder.primes.Wheel;
+
+import java.io.IOException;
+
+/**
+ * Everything a {@link ScenarioRunner} run is parameterised by. The engine, wheel, executor and prime table
+ * switches are the same ones the Mains read, the rest are the runner's own.
+ */
+public class ScenarioConfig {
+
+	//the bad version's fibonnacis stop at F(46), which leaves it 10 reachable matches, and the first 8 come quickly
+	public static final int DEFAULT_TARGET = 8;
+
+	private static final String[] GOOD_ONLY_SWITCHES = {"--wheel=", "--prime-table=", "--prime-buffer=", "--fibonnaci-buffer="};
+
+	private String version = "good";
+	private int target = DEFAULT_TARGET;
+	private PrimeEngine engine;
+	private int parallelism;
+	private Wheel wheel;
+	private PrimeTable primeTable;
+	private int primeBufferSize = PrimeNumbersTask.DEFAULT_BUFFER_SIZE;
+	private int fibonnaciBufferSize = FibonnaciNumbersTask.DEFAULT_BUFFER_SIZE;
+	private ExecutionMode executionMode;
+	private int poolSize;
+	private int warmupIterations = 1;
+	private int measurementIterations = 3;
+	private long timeoutSeconds = 60;
+	private String jsonFile;
+
+	/**
+	 * {@code --version=bad|good --target=N --prime-buffer=N --fibonnaci-buffer=N --warmup=N --iterations=N
+	 * --timeout=SECONDS --json=FILE}, plus the Mains' {@code --engine= --parallelism= --wheel= --prime-table=
+	 * --executor= --pool-size=}. The wheel, prime table and buffer switches are rejected for the bad version,
+	 * which has nothing to apply them to.
+	 */
+	public static ScenarioConfig fromArgs(String[] args) throws IOException {
+		ScenarioConfig config = new ScenarioConfig();
+		for (String arg : args) {
+			if (arg.startsWith("--version=")) config.version = value(arg);
+			else if (arg.startsWith("--target=")) config.target = Integer.parseInt(value(arg));
+			else if (arg.startsWith("--prime-buffer=")) config.primeBufferSize = Integer.parseInt(value(arg));
+			else if (arg.startsWith("--fibonnaci-buffer=")) config.fibonnaciBufferSize = Integer.parseInt(value(arg));
+			else if (arg.startsWith("--warmup=")) config.warmupIterations = Integer.parseInt(value(arg));
+			else if (arg.startsWith("--iterations=")) config.measurementIterations = Integer.parseInt(value(arg));
+			else if (arg.startsWith("--timeout=")) config.timeoutSeconds = Long.parseLong(value(arg));
+			else if (arg.startsWith("--json=")) config.jsonFile = value(arg);
+		}
+		if (!config.version.equals("bad") && !config.version.equals("good")) {
+			throw new IllegalArgumentException("Unknown version: " + config.version + " (expected bad or good)");
+		}
+		if (config.target < 1) throw new IllegalArgumentException("target must be positive: " + config.target);
+		if (config.measurementIterations < 1) throw new IllegalArgumentException("iterations must be positive: " + config.measurementIterations);
+		if (config.version.equals("bad")) {
+			//the bad version has no wheel, table or ring buffers, so these would be recorded without being applied
+			for (String arg : args) {
+				for (String goodOnly : GOOD_ONLY_SWITCHES) {
+					if (arg.startsWith(goodOnly)) throw new IllegalArgumentException(goodOnly + " only applies to --version=good");
+				}
+			}
+		}
+		config.engine = PrimeEngine.fromArgs(args);
+		config.parallelism = PrimeEngine.parallelismFromArgs(args);
+		config.wheel = Wheel.fromArgs(args);
+		config.executionMode = ExecutionMode.fromArgs(args);
+		config.poolSize = ExecutionMode.poolSizeFromArgs(args, Pipeline.TASKS);
+		config.primeTable = PrimeTable.fromArgs(args);
+		return config;
+	}
+
+	private static String value(String arg) {
+		return arg.substring(arg.indexOf('=') + 1);
+	}
+
+	void writeTo(JsonWriter json) {
+		json.beginObject();
+		json.name("version").value(version);
+		json.name("target").value(target);
+		json.name("engine").value(engine.getSwitchName());
+		json.name("parallelism").value(parallelism);
+		if (version.equals("good")) {
+			json.name("wheel").value(wheel.getSwitchName());
+			json.name("primeTableLimit").value(primeTable == null ? 0 : primeTable.limit());
+			json.name("primeBufferSize").value(primeBufferSize);
+			json.name("fibonnaciBufferSize").value(fibonnaciBufferSize);
+		}
+		json.name("executor").value(executionMode.name());
+		json.name("poolSize").value(poolSize);
+		json.name("warmupIterations").value(warmupIterations);
+		json.name("measurementIterations").value(measurementIterations);
+		json.name("timeoutSeconds").value(timeoutSeconds);
+		json.endObject();
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public int getTarget() {
+		return target;
+	}
+
+	public PrimeEngine getEngine() {
+		return engine;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public Wheel getWheel() {
+		return wheel;
+	}
+
+	public PrimeTable getPrimeTable() {
+		return primeTable;
+	}
+
+	public int getPrimeBufferSize() {
+		return primeBufferSize;
+	}
+
+	public int getFibonnaciBufferSize() {
+		return fibonnaciBufferSize;
+	}
+
+	public ExecutionMode getExecutionMode() {
+		return executionMode;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public int getWarmupIterations() {
+		return warmupIterations;
+	}
+
+	public int getMeasurementIterations() {
+		return measurementIterations;
+	}
+
+	public long getTimeoutSeconds() {
+		return timeoutSeconds;
+	}
+
+	public String getJsonFile() {
+		return jsonFile;
+	}
+}
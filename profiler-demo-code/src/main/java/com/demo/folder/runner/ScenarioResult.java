@@ -0,0 +1,103 @@
+package com.demo.folder.runner;
+
+import java.util.Arrays;
+
+/**
+ * What one iteration of a scenario measured. Times are from the moment the pipeline was started.
+ */
+public class ScenarioResult {
+
+	private final long[] matchNanos;
+	private final int matches;
+	private final long wallNanos;
+	private final boolean timedOut;
+	private final long primesGenerated;
+	private final long cpuNanos;
+	private final long allocatedBytes;
+
+	/**
+	 * @param matchNanos when each of the first {@code target} matches arrived, as many as were found.
+	 * @param cpuNanos   CPU time of the pipeline's threads, or -1 when the JVM can't measure it for them.
+	 * @param allocatedBytes bytes allocated by the pipeline's threads, or -1 likewise.
+	 */
+	ScenarioResult(long[] matchNanos, int matches, long wallNanos, boolean timedOut, long primesGenerated, long cpuNanos, long allocatedBytes) {
+		this.matchNanos = matchNanos;
+		this.matches = matches;
+		this.wallNanos = wallNanos;
+		this.timedOut = timedOut;
+		this.primesGenerated = primesGenerated;
+		this.cpuNanos = cpuNanos;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public int getMatches() {
+		return matches;
+	}
+
+	public long getWallNanos() {
+		return wallNanos;
+	}
+
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+
+	/**
+	 * Latency to the last match recorded, which is the Nth one unless the run timed out.
+	 */
+	public long getLastMatchNanos() {
+		return matchNanos.length == 0 ? -1 : matchNanos[matchNanos.length - 1];
+	}
+
+	public long getPrimesGenerated() {
+		return primesGenerated;
+	}
+
+	public double getPrimesPerSecond() {
+		return primesGenerated * 1e9 / wallNanos;
+	}
+
+	public double getMatchesPerSecond() {
+		return matches * 1e9 / wallNanos;
+	}
+
+	public long getCpuNanos() {
+		return cpuNanos;
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	void writeTo(JsonWriter json) {
+		json.beginObject();
+		json.name("matches").value(matches);
+		json.name("timedOut").value(timedOut);
+		json.name("wallMillis").value(wallNanos / 1e6);
+		json.name("nthMatchMillis");
+		if (timedOut) json.nullValue();
+		else json.value(getLastMatchNanos() / 1e6);
+		json.name("matchMillis").beginArray();
+		for (long nanos : matchNanos) json.value(nanos / 1e6);
+		json.endArray();
+		json.name("matchesPerSecond").value(getMatchesPerSecond());
+		json.name("primesGenerated").value(primesGenerated);
+		json.name("primesPerSecond").value(getPrimesPerSecond());
+		json.name("cpuMillis");
+		if (cpuNanos < 0) json.nullValue();
+		else json.value(cpuNanos / 1e6);
+		json.name("allocatedBytes");
+		if (allocatedBytes < 0) json.nullValue();
+		else json.value(allocatedBytes);
+		json.endObject();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d matches in %,.1f ms%s, %,.0f primes/s, cpu %s, allocated %s, matches at %s",
+				matches, wallNanos / 1e6, timedOut ? " (timed out)" : "", getPrimesPerSecond(),
+				cpuNanos < 0 ? "n/a" : String.format("%,.1f ms", cpuNanos / 1e6),
+				allocatedBytes < 0 ? "n/a" : String.format("%,d bytes", allocatedBytes),
+				Arrays.toString(Arrays.stream(matchNanos).map(nanos -> nanos / 1000000).toArray()) + " ms");
+	}
+}
@@ -0,0 +1,241 @@
+package com.demo.folder.runner;
+
+import com.demo.folder.concurrent.ExecutionMode;
+import com.demo.folder.good_version.CombinedNumbersTask;
+import com.demo.folder.good_version.MatchListener;
+import com.demo.folder.good_version.MatchSnapshot;
+import com.demo.folder.good_version.Pipeline;
+import com.demo.folder.good_version.PrimeNumbersTask;
+import com.demo.folder.metrics.StageMetrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs the bad or good pipeline in-process for a number of warm-up and measured iterations, each until it has
+ * {@code --target} matches, and writes the measurements as JSON (to {@code --json=FILE}, or stdout) so runs can
+ * be compared across commits and machines. See {@link ScenarioConfig} for the switches.
+ */
+public class ScenarioRunner {
+
+	//the bad combining task can't notify anyone, so its size is polled this often
+	private static final long BAD_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final ScenarioConfig config;
+
+	public ScenarioRunner(ScenarioConfig config) {
+		this.config = config;
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		ScenarioConfig config = ScenarioConfig.fromArgs(args);
+		ScenarioRunner runner = new ScenarioRunner(config);
+
+		for (int i = 1; i <= config.getWarmupIterations(); i++) {
+			System.err.println("warm-up " + i + ": " + runner.runOnce());
+		}
+		List<ScenarioResult> results = new ArrayList<ScenarioResult>();
+		for (int i = 1; i <= config.getMeasurementIterations(); i++) {
+			ScenarioResult result = runner.runOnce();
+			System.err.println("iteration " + i + ": " + result);
+			results.add(result);
+		}
+
+		String json = toJson(config, results);
+		if (config.getJsonFile() == null) System.out.println(json);
+		else Files.write(Paths.get(config.getJsonFile()), json.getBytes(StandardCharsets.UTF_8));
+		//the bad version's tasks may still be winding down, and none of them matter any more
+		System.exit(0);
+	}
+
+	public ScenarioResult runOnce() throws InterruptedException {
+		ExecutorService executor = config.getExecutionMode().newExecutor(config.getPoolSize());
+		Usage usage = new Usage(executor);
+		ScenarioResult result = config.getVersion().equals("bad") ? runBad(usage) : runGood(usage);
+		executor.shutdown();
+		return result;
+	}
+
+	private ScenarioResult runGood(Usage usage) throws InterruptedException {
+		int target = config.getTarget();
+		Pipeline pipeline = new Pipeline(config.getPrimeBufferSize(), config.getFibonnaciBufferSize());
+		PrimeNumbersTask primes = pipeline.getPrimeNumbersTask();
+		primes.setEngine(config.getEngine());
+		primes.setParallelism(config.getParallelism());
+		primes.setWheel(config.getWheel());
+		primes.setPrimeTable(config.getPrimeTable());
+		StageMetrics primeMetrics = new StageMetrics("primes");
+		primes.setMetrics(primeMetrics);
+
+		CombinedNumbersTask combined = pipeline.getCombinedNumbersTask();
+		long[] matchNanos = new long[target];
+		CountDownLatch enough = new CountDownLatch(1);
+		long start = System.nanoTime();
+		combined.addListener(new MatchListener() {
+			@Override
+			public void matchesAdded(MatchSnapshot snapshot, long[] added) {
+				long now = System.nanoTime() - start;
+				for (int i = snapshot.size() - added.length; i < Math.min(snapshot.size(), target); i++) matchNanos[i] = now;
+				if (snapshot.size() >= target) enough.countDown();
+			}
+
+			@Override
+			public void finished(MatchSnapshot snapshot) {
+				enough.countDown();
+			}
+		});
+		pipeline.start(usage);
+		boolean reached = enough.await(config.getTimeoutSeconds(), TimeUnit.SECONDS) && combined.getSize() >= target;
+		long wallNanos = System.nanoTime() - start;
+
+		pipeline.stop();
+		return usage.result(matchNanos, combined.getSize(), wallNanos, !reached, primeMetrics, Pipeline.TASKS);
+	}
+
+	private ScenarioResult runBad(Usage usage) {
+		int target = config.getTarget();
+		com.demo.folder.bad_version.PrimeNumbersTask primes = new com.demo.folder.bad_version.PrimeNumbersTask();
+		primes.setEngine(config.getEngine());
+		primes.setParallelism(config.getParallelism());
+		StageMetrics primeMetrics = new StageMetrics("primes");
+		primes.setMetrics(primeMetrics);
+		com.demo.folder.bad_version.FibonnaciNumbersTask fibonnacis = new com.demo.folder.bad_version.FibonnaciNumbersTask();
+		com.demo.folder.bad_version.CombinedNumbersTask combined = new com.demo.folder.bad_version.CombinedNumbersTask();
+		combined.setPrimeNumbersTask(primes);
+		combined.setFibonnaciNumbersTask(fibonnacis);
+
+		long[] matchNanos = new long[target];
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.SECONDS.toNanos(config.getTimeoutSeconds());
+		usage.execute(ExecutionMode.named("primesGeneratorThread", primes));
+		usage.execute(ExecutionMode.named("fibonnaciNumbersThread", fibonnacis));
+		usage.execute(ExecutionMode.named("combinedNumbersThread", combined));
+
+		int seen = 0;
+		while (seen < target && System.nanoTime() < deadline) {
+			LockSupport.parkNanos(BAD_POLL_NANOS);
+			int size = combined.getSize();
+			long now = System.nanoTime() - start;
+			for (; seen < Math.min(size, target); seen++) matchNanos[seen] = now;
+		}
+		long wallNanos = System.nanoTime() - start;
+
+		primes.taskComplete();
+		fibonnacis.taskComplete();
+		combined.taskComplete();
+		return usage.result(matchNanos, combined.getSize(), wallNanos, seen < target, primeMetrics, 3);
+	}
+
+	/**
+	 * Runs one iteration's tasks and adds up their threads' CPU time and allocation as each task finishes.
+	 */
+	private static final class Usage implements Executor {
+		private final Executor executor;
+		private final AtomicLong cpuNanos = new AtomicLong();
+		private final AtomicLong allocatedBytes = new AtomicLong();
+		private final AtomicLong finishedTasks = new AtomicLong();
+
+		Usage(Executor executor) {
+			this.executor = executor;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			executor.execute(() -> {
+				long cpuBefore = THREADS.getCurrentThreadCpuTime();
+				long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+				try {
+					task.run();
+				}
+				finally {
+					add(cpuNanos, cpuBefore, THREADS.getCurrentThreadCpuTime());
+					add(allocatedBytes, allocatedBefore, THREADS.getCurrentThreadAllocatedBytes());
+					finishedTasks.incrementAndGet();
+				}
+			});
+		}
+
+		//either reading is -1 when the JVM can't measure the thread (a virtual one, say), which poisons the total
+		private static void add(AtomicLong total, long before, long after) {
+			if (before < 0 || after < 0) total.set(Long.MIN_VALUE / 2);
+			else total.addAndGet(after - before);
+		}
+
+		//waits (briefly) for the stopped tasks to finish, so their usage is in the totals
+		ScenarioResult result(long[] matchNanos, int matches, long wallNanos, boolean timedOut, StageMetrics primeMetrics, int tasks) {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (finishedTasks.get() < tasks && System.nanoTime() < deadline) LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+			boolean complete = finishedTasks.get() >= tasks;
+			long cpu = cpuNanos.get();
+			long allocated = allocatedBytes.get();
+			return new ScenarioResult(Arrays.copyOf(matchNanos, Math.min(matches, matchNanos.length)), matches, wallNanos, timedOut,
+					primeMetrics.getGenerated(), complete && cpu >= 0 ? cpu : -1, complete && allocated >= 0 ? allocated : -1);
+		}
+	}
+
+	static String toJson(ScenarioConfig config, List<ScenarioResult> results) {
+		JsonWriter json = new JsonWriter().beginObject();
+		json.name("timestamp").value(Instant.now().toString());
+		json.name("jvm").value(System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+		json.name("os").value(System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+		json.name("processors").value(Runtime.getRuntime().availableProcessors());
+		json.name("config");
+		config.writeTo(json);
+		json.name("iterations").beginArray();
+		for (ScenarioResult result : results) result.writeTo(json);
+		json.endArray();
+
+		json.name("summary").beginObject();
+		summary(json, "wallMillis", results, 1e6, ScenarioResult::getWallNanos);
+		summary(json, "nthMatchMillis", results, 1e6, result -> result.isTimedOut() ? -1 : result.getLastMatchNanos());
+		summary(json, "cpuMillis", results, 1e6, ScenarioResult::getCpuNanos);
+		summary(json, "allocatedBytes", results, 1, ScenarioResult::getAllocatedBytes);
+		json.name("primesPerSecond");
+		statistics(json, results.stream().mapToDouble(ScenarioResult::getPrimesPerSecond).toArray());
+		json.endObject();
+		return json.endObject().toString();
+	}
+
+	//skips the iterations that couldn't measure the value, which report it as -1
+	private static void summary(JsonWriter json, String name, List<ScenarioResult> results, double unit, ToLongFunction<ScenarioResult> value) {
+		json.name(name);
+		statistics(json, results.stream().mapToLong(value).filter(v -> v >= 0).mapToDouble(v -> v / unit).toArray());
+	}
+
+	private static void statistics(JsonWriter json, double[] values) {
+		if (values.length == 0) {
+			json.nullValue();
+			return;
+		}
+		double min = Double.MAX_VALUE;
+		double max = -Double.MAX_VALUE;
+		double sum = 0;
+		for (double value : values) {
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+			sum += value;
+		}
+		json.beginObject();
+		json.name("min").value(min);
+		json.name("mean").value(sum / values.length);
+		json.name("max").value(max);
+		json.name("n").value(values.length);
+		json.endObject();
+	}
+}
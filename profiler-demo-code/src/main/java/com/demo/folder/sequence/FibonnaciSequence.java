@@ -0,0 +1,114 @@
+package com.demo.folder.sequence;
+
+import java.math.BigInteger;
+
+/**
+ * Unbounded stream of Fibonacci numbers, F(0) = 0, F(1) = 1. Terms are plain longs up to
+ * F({@value #MAX_LONG_INDEX}) and BigIntegers after that, so nothing ever overflows silently.
+ * {@link #fib(long)} and {@link #skipTo(long)} use fast doubling to reach any term in O(log n) steps.
+ */
+public class FibonnaciSequence implements SequenceGenerator {
+
+	/**
+	 * F(92) is the largest Fibonacci number that fits in a long.
+	 */
+	public static final int MAX_LONG_INDEX = 92;
+
+	private static final long[] LONG_TERMS = new long[MAX_LONG_INDEX + 1];
+
+	static {
+		LONG_TERMS[1] = 1;
+		for (int i = 2; i <= MAX_LONG_INDEX; i++) {
+			LONG_TERMS[i] = LONG_TERMS[i - 1] + LONG_TERMS[i - 2];
+		}
+	}
+
+	//index of the term the next call returns
+	private long index;
+	//F(index) and F(index + 1), only used once past the long range
+	private BigInteger current;
+	private BigInteger following;
+
+	public long index() {
+		return index;
+	}
+
+	public boolean hasNextLong() {
+		return index <= MAX_LONG_INDEX;
+	}
+
+	/**
+	 * @throws ArithmeticException once the next term no longer fits in a long.
+	 */
+	public long nextLong() {
+		if (!hasNextLong()) throw new ArithmeticException("F(" + index + ") does not fit in a long");
+		return LONG_TERMS[(int) index++];
+	}
+
+	/**
+	 * As a {@link SequenceGenerator} the sequence ends at F({@value #MAX_LONG_INDEX}).
+	 */
+	@Override
+	public long nextTerm() {
+		return hasNextLong() ? nextLong() : END;
+	}
+
+	public BigInteger next() {
+		if (hasNextLong()) return BigInteger.valueOf(nextLong());
+		if (current == null) {
+			BigInteger[] pair = fibPair(index);
+			current = pair[0];
+			following = pair[1];
+		}
+		BigInteger result = current;
+		current = following;
+		following = result.add(following);
+		index++;
+		return result;
+	}
+
+	/**
+	 * Moves the stream so that the next term returned is F(n), without generating the ones in between.
+	 */
+	public void skipTo(long n) {
+		if (n < 0) throw new IllegalArgumentException("n must not be negative: " + n);
+		index = n;
+		current = null;
+		following = null;
+	}
+
+	public static long fibLong(int n) {
+		if (n < 0 || n > MAX_LONG_INDEX) throw new ArithmeticException("F(" + n + ") does not fit in a long");
+		return LONG_TERMS[n];
+	}
+
+	public static BigInteger fib(long n) {
+		if (n < 0) throw new IllegalArgumentException("n must not be negative: " + n);
+		if (n <= MAX_LONG_INDEX) return BigInteger.valueOf(LONG_TERMS[(int) n]);
+		return fibPair(n)[0];
+	}
+
+	/**
+	 * Fast doubling: F(2k) = F(k)(2F(k+1) - F(k)) and F(2k+1) = F(k)^2 + F(k+1)^2, walking the bits of n
+	 * from the top.
+	 *
+	 * @return {F(n), F(n + 1)}
+	 */
+	private static BigInteger[] fibPair(long n) {
+		BigInteger a = BigInteger.ZERO;
+		BigInteger b = BigInteger.ONE;
+		for (int bit = 63 - Long.numberOfLeadingZeros(n); bit >= 0; bit--) {
+			BigInteger doubled = a.multiply(b.shiftLeft(1).subtract(a));
+			BigInteger doubledPlusOne = a.multiply(a).add(b.multiply(b));
+			if (((n >>> bit) & 1) == 0) {
+				a = doubled;
+				b = doubledPlusOne;
+			}
+			else {
+				a = doubledPlusOne;
+				b = doubled.add(doubledPlusOne);
+			}
+		}
+		return new BigInteger[] {a, b};
+	}
+}
@@ -0,0 +1,101 @@
+package com.demo.folder.sequence;
+
+/**
+ * The terms common to every one of k non-decreasing sequences, in order, each reported once.
+ * The current head of each sequence sits in a binary min-heap: while the smallest head is below the
+ * largest, only that sequence can be behind, so it is the one advanced. When the smallest equals the
+ * largest every head is the same and that value is a match. Each step costs O(log k).
+ * Ends as soon as any of the sequences ends, since nothing after that can be common to all of them.
+ */
+public class KWayIntersection implements SequenceGenerator {
+
+	private final SequenceGenerator[] sources;
+	private final long[] heads;
+	//indexes into sources, ordered as a min-heap on heads
+	private final int[] heap;
+	private long max = Long.MIN_VALUE;
+	private boolean started;
+	private boolean ended;
+
+	public KWayIntersection(SequenceGenerator... sources) {
+		if (sources.length == 0) throw new IllegalArgumentException("need at least one sequence");
+		this.sources = sources.clone();
+		this.heads = new long[sources.length];
+		this.heap = new int[sources.length];
+	}
+
+	public int getWays() {
+		return sources.length;
+	}
+
+	@Override
+	public long nextTerm() {
+		if (ended) return END;
+		if (!started) {
+			started = true;
+			for (int i = 0; i < sources.length; i++) {
+				if (!advance(i, Long.MIN_VALUE)) return end();
+				heap[i] = i;
+			}
+			for (int i = sources.length / 2 - 1; i >= 0; i--) siftDown(i);
+		}
+
+		while (true) {
+			int smallest = heap[0];
+			long min = heads[smallest];
+			if (min == max) {
+				//every head is this value, move them all past it so it is reported once
+				for (int i = 0; i < sources.length; i++) {
+					if (!advance(i, min)) {
+						ended = true;
+						return min;
+					}
+				}
+				for (int i = sources.length / 2 - 1; i >= 0; i--) siftDown(i);
+				return min;
+			}
+			if (!advance(smallest, min)) return end();
+			siftDown(0);
+		}
+	}
+
+	@Override
+	public boolean mayBlock() {
+		for (SequenceGenerator source : sources) {
+			if (source.mayBlock()) return true;
+		}
+		return false;
+	}
+
+	//reads terms from source i until one is above floor
+	private boolean advance(int i, long floor) {
+		long term;
+		do {
+			term = sources[i].nextTerm();
+			if (term == END) return false;
+		} while (term <= floor);
+		heads[i] = term;
+		if (term > max) max = term;
+		return true;
+	}
+
+	private long end() {
+		ended = true;
+		return END;
+	}
+
+	private void siftDown(int position) {
+		int size = heap.length;
+		int index = heap[position];
+		long value = heads[index];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) break;
+			if (child + 1 < size && heads[heap[child + 1]] < heads[heap[child]]) child++;
+			if (heads[heap[child]] >= value) break;
+			heap[position] = heap[child];
+			position = child;
+		}
+		heap[position] = index;
+	}
+}
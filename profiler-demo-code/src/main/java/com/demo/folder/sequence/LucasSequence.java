@@ -0,0 +1,26 @@
+package com.demo.folder.sequence;
+
+/**
+ * The Lucas numbers from L(1) = 1: 1, 3, 4, 7, 11, ... up to the largest that fits in a long.
+ * L(0) = 2 is left out, since it would make the sequence go down.
+ */
+public class LucasSequence implements SequenceGenerator {
+
+	//the next two terms, either of which is END once it would overflow
+	private long current = 1;
+	private long following = 3;
+
+	@Override
+	public long nextTerm() {
+		long result = current;
+		if (following == END) {
+			current = END;
+		}
+		else if (current != END) {
+			long sum = following > Long.MAX_VALUE - current ? END : current + following;
+			current = following;
+			following = sum;
+		}
+		return result;
+	}
+}
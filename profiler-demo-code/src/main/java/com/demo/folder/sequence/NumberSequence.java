@@ -0,0 +1,64 @@
+package com.demo.folder.sequence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The sequences that can be joined without any threads of their own. Picked on the command line with
+ * {@code --sequences=primes,fibonnaci,squares,triangular,lucas}.
+ */
+public enum NumberSequence {
+	PRIMES("primes"),
+	FIBONNACI("fibonnaci"),
+	SQUARES("squares"),
+	TRIANGULAR("triangular"),
+	LUCAS("lucas");
+
+	private static final String SWITCH = "--sequences=";
+
+	private final String switchName;
+
+	NumberSequence(String switchName) {
+		this.switchName = switchName;
+	}
+
+	public String getSwitchName() {
+		return switchName;
+	}
+
+	public SequenceGenerator newGenerator() {
+		switch (this) {
+			case PRIMES:
+				return new PrimeSequence();
+			case FIBONNACI:
+				return new FibonnaciSequence();
+			case SQUARES:
+				return new SquareSequence();
+			case TRIANGULAR:
+				return new TriangularSequence();
+			case LUCAS:
+				return new LucasSequence();
+			default:
+				throw new AssertionError(this);
+		}
+	}
+
+	public static NumberSequence forName(String name) {
+		for (NumberSequence sequence : values()) {
+			if (sequence.switchName.equalsIgnoreCase(name) || sequence.name().equalsIgnoreCase(name)) return sequence;
+		}
+		throw new IllegalArgumentException("Unknown sequence: " + name);
+	}
+
+	/**
+	 * Returns the sequences listed by a {@code --sequences=} switch, or an empty list when there is none.
+	 */
+	public static List<NumberSequence> fromArgs(String[] args) {
+		List<NumberSequence> sequences = new ArrayList<NumberSequence>();
+		for (String arg : args) {
+			if (!arg.startsWith(SWITCH)) continue;
+			for (String name : arg.substring(SWITCH.length()).split(",")) sequences.add(forName(name.trim()));
+		}
+		return sequences;
+	}
+}
@@ -0,0 +1,18 @@
+package com.demo.folder.sequence;
+
+import com.demo.folder.primes.SegmentedSieve;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * The primes, sieved a segment at a time on the calling thread.
+ */
+public class PrimeSequence implements SequenceGenerator {
+
+	private final PrimitiveIterator.OfLong primes = new SegmentedSieve().iterator();
+
+	@Override
+	public long nextTerm() {
+		return primes.nextLong();
+	}
+}
@@ -0,0 +1,53 @@
+package com.demo.folder.sequence;
+
+/**
+ * A non-decreasing sequence of longs, read one term at a time, which is all {@link KWayIntersection}
+ * needs to join it with others.
+ */
+@FunctionalInterface
+public interface SequenceGenerator {
+
+	/**
+	 * Returned by {@link #nextTerm()} once the sequence has ended, so it can never be a term.
+	 */
+	long END = Long.MIN_VALUE;
+
+	/**
+	 * The next term, never smaller than the one before it, or {@link #END}. May block if the terms are
+	 * produced on another thread.
+	 */
+	long nextTerm();
+
+	/**
+	 * Whether the next call to {@link #nextTerm()} is likely to wait for a term to be produced.
+	 */
+	default boolean mayBlock() {
+		return false;
+	}
+
+	/**
+	 * The terms below {@code bound}, ending at the first one that isn't.
+	 */
+	default SequenceGenerator upTo(long bound) {
+		return new SequenceGenerator() {
+			private boolean ended;
+
+			@Override
+			public long nextTerm() {
+				if (ended) return END;
+				long term = SequenceGenerator.this.nextTerm();
+				if (term == END || term >= bound) {
+					ended = true;
+					return END;
+				}
+				return term;
+			}
+
+			@Override
+			public boolean mayBlock() {
+				return !ended && SequenceGenerator.this.mayBlock();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.demo.folder.sequence;
+
+/**
+ * n^2 for n = 0, 1, 2, ... up to the largest square that fits in a long.
+ */
+public class SquareSequence implements SequenceGenerator {
+
+	private static final long MAX_ROOT = 3037000499L;
+
+	private long n;
+
+	@Override
+	public long nextTerm() {
+		if (n > MAX_ROOT) return END;
+		long term = n * n;
+		n++;
+		return term;
+	}
+}
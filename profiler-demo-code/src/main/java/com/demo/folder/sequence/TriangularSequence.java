@@ -0,0 +1,21 @@
+package com.demo.folder.sequence;
+
+/**
+ * n(n + 1) / 2 for n = 0, 1, 2, ... up to the largest that fits in a long.
+ */
+public class TriangularSequence implements SequenceGenerator {
+
+	private long n;
+	//the next term, or END once it would overflow
+	private long term;
+
+	@Override
+	public long nextTerm() {
+		long result = term;
+		if (term != END) {
+			n++;
+			term = term > Long.MAX_VALUE - n ? END : term + n;
+		}
+		return result;
+	}
+}
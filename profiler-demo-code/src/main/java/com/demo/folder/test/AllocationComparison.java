@@ -0,0 +1,110 @@
+package com.demo.folder.test;
+
+import com.demo.folder.collections.LongArrayList;
+import com.demo.folder.collections.LongHashSet;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares heap allocated by the boxed bad_version code paths against their primitive good_version
+ * replacements, using the per-thread allocation counter of the HotSpot ThreadMXBean.
+ */
+public class AllocationComparison {
+
+    private static final int CHECK_UP_TO = 20000;
+    private static final int NUMBERS = 1000000;
+    private static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // consumed so the JIT can't drop the work being measured
+    private static long sink;
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void boxedChecker() {
+        com.demo.folder.bad_version.NumberChecker checker = new com.demo.folder.bad_version.NumberChecker();
+        for (Integer i = 2; i < CHECK_UP_TO; i++) {
+            if (checker.isPrime(i)) sink++;
+        }
+    }
+
+    private static void primitiveChecker() {
+        com.demo.folder.good_version.NumberChecker checker = new com.demo.folder.good_version.NumberChecker();
+        for (long i = 2; i < CHECK_UP_TO; i++) {
+            if (checker.isPrime(i)) sink++;
+        }
+    }
+
+    private static void boxedCollections() {
+        List<Integer> list = new ArrayList<Integer>();
+        Set<Integer> set = new HashSet<Integer>();
+        for (int i = 0; i < NUMBERS; i++) {
+            list.add(i * 3);
+            set.add(i * 5);
+        }
+        for (Integer value : list) {
+            if (set.contains(value)) sink++;
+        }
+    }
+
+    private static void primitiveCollections() {
+        LongArrayList list = new LongArrayList();
+        LongHashSet set = new LongHashSet();
+        for (int i = 0; i < NUMBERS; i++) {
+            list.add(i * 3L);
+            set.add(i * 5L);
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (set.contains(list.get(i))) sink++;
+        }
+    }
+
+    private static void compare(String name, Runnable boxed, Runnable primitive) {
+        // first rounds are warm-up so both sides are measured after JIT compilation
+        long boxedBytes = 0, primitiveBytes = 0, boxedNanos = 0, primitiveNanos = 0;
+        for (int round = 0; round < ROUNDS * 2; round++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            boxed.run();
+            long boxedTime = System.nanoTime() - start;
+            long boxedAllocated = allocatedBytes() - bytes;
+
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            primitive.run();
+            long primitiveTime = System.nanoTime() - start;
+            long primitiveAllocated = allocatedBytes() - bytes;
+
+            if (round >= ROUNDS) {
+                boxedBytes += boxedAllocated;
+                boxedNanos += boxedTime;
+                primitiveBytes += primitiveAllocated;
+                primitiveNanos += primitiveTime;
+            }
+        }
+        System.out.printf("%-12s boxed: %,14d bytes %,8d us | primitive: %,14d bytes %,8d us (per round)%n",
+                name,
+                boxedBytes / ROUNDS, boxedNanos / ROUNDS / 1000,
+                primitiveBytes / ROUNDS, primitiveNanos / ROUNDS / 1000);
+    }
+
+    public static void main(String[] args) {
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation accounting is not supported by this JVM.");
+            return;
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        compare("isPrime", AllocationComparison::boxedChecker, AllocationComparison::primitiveChecker);
+        compare("collections", AllocationComparison::boxedCollections, AllocationComparison::primitiveCollections);
+        System.out.println("(ignore) " + sink);
+    }
+}
@@ -0,0 +1,109 @@
+package com.demo.folder.test;
+
+import com.demo.folder.good_version.CombinedNumbersTask;
+import com.demo.folder.good_version.Pipeline;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the bad_version and good_version pipelines in-process, one after the other, and reports how much
+ * CPU each of their threads burns over a fixed window. The primes thread is doing real work in both, the
+ * interesting numbers are the consumer and main threads, which have nothing to do but wait.
+ */
+public class CpuUsageComparison {
+
+    private static final long WINDOW_MILLIS = 5000;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // both pipelines start their threads in this order, and the good ones rename themselves while they run
+    private static final String[] ROLES = {"primes", "fibonnacis", "combined", "main"};
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Thread> good = new ArrayList<Thread>();
+        Pipeline pipeline = goodPipeline(good);
+        report("good_version", good);
+        // the good threads must be gone before the bad window starts, or their cpu is counted against it
+        pipeline.stop();
+        for (Thread thread : good) thread.join();
+
+        report("bad_version", badPipeline());
+        // the bad tasks can't be woken once they are stuck spinning, so just leave
+        System.exit(0);
+    }
+
+    private static Pipeline goodPipeline(List<Thread> threads) {
+        Pipeline pipeline = new Pipeline();
+        CombinedNumbersTask combined = pipeline.getCombinedNumbersTask();
+        pipeline.start(task -> threads.add(start("pipeline", task)));
+        // stopping the pipeline ends the combined task, which wakes this from awaitSize
+        threads.add(start("main", () -> {
+            try {
+                while (!combined.isDone()) combined.awaitSize(100, 1, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        return pipeline;
+    }
+
+    private static List<Thread> badPipeline() {
+        com.demo.folder.bad_version.PrimeNumbersTask primes = new com.demo.folder.bad_version.PrimeNumbersTask();
+        com.demo.folder.bad_version.FibonnaciNumbersTask fibonnacis = new com.demo.folder.bad_version.FibonnaciNumbersTask();
+        com.demo.folder.bad_version.CombinedNumbersTask combined = new com.demo.folder.bad_version.CombinedNumbersTask();
+        combined.setPrimeNumbersTask(primes);
+        combined.setFibonnaciNumbersTask(fibonnacis);
+
+        List<Thread> threads = new ArrayList<Thread>();
+        threads.add(start("primes", primes));
+        threads.add(start("fibonnacis", fibonnacis));
+        threads.add(start("combined", combined));
+        // same as bad_version Main, which only sleeps once every 200 polls
+        threads.add(start("main", () -> {
+            int iterations = 0;
+            while (combined.getSize() < 100) {
+                if (++iterations > 200) {
+                    iterations = 0;
+                    try {
+                        Thread.sleep(1000);
+                    }
+                    catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }));
+        return threads;
+    }
+
+    private static Thread start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void report(String version, List<Thread> threads) throws InterruptedException {
+        long[] before = new long[threads.size()];
+        for (int i = 0; i < before.length; i++) before[i] = THREADS.getThreadCpuTime(threads.get(i).getId());
+        long startNanos = System.nanoTime();
+        Thread.sleep(WINDOW_MILLIS);
+        double elapsed = System.nanoTime() - startNanos;
+
+        System.out.println(version + " over " + WINDOW_MILLIS + " ms:");
+        double total = 0;
+        for (int i = 0; i < before.length; i++) {
+            long after = THREADS.getThreadCpuTime(threads.get(i).getId());
+            // -1 once the thread has finished, and it can't have used anything since
+            double used = after < 0 ? 0 : (after - before[i]) / elapsed * 100;
+            total += used;
+            System.out.printf("  %-12s %6.1f%% cpu%n", ROLES[i], used);
+        }
+        System.out.printf("  %-12s %6.1f%% cpu%n", "total", total);
+    }
+}
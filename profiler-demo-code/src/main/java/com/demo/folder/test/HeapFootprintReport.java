@@ -0,0 +1,98 @@
+package com.demo.folder.test;
+
+import com.demo.folder.concurrent.ExecutionMode;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Runs one pipeline (bad or good, trial division) for a fixed time and reports peak heap, off-heap
+ * buffer use and GC pauses, to show whether memory stays flat on a long run. Usage:
+ * {@code HeapFootprintReport [bad|good] [seconds]}.
+ */
+public class HeapFootprintReport {
+
+    public static void main(String[] args) throws InterruptedException {
+        String version = args.length > 0 ? args[0] : "bad";
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 30;
+
+        AtomicLong maxPauseMillis = new AtomicLong();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                maxPauseMillis.accumulateAndGet(info.getGcInfo().getDuration(), Math::max);
+            }, null, null);
+        }
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) pool.resetPeakUsage();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+
+        ExecutorService executor = ExecutionMode.PLATFORM.newExecutor(3);
+        Runnable stop;
+        IntSupplier matches;
+        if (version.equals("bad")) {
+            com.demo.folder.bad_version.PrimeNumbersTask primes = new com.demo.folder.bad_version.PrimeNumbersTask();
+            com.demo.folder.bad_version.FibonnaciNumbersTask fibonnacis = new com.demo.folder.bad_version.FibonnaciNumbersTask();
+            com.demo.folder.bad_version.CombinedNumbersTask combined = new com.demo.folder.bad_version.CombinedNumbersTask();
+            combined.setPrimeNumbersTask(primes);
+            combined.setFibonnaciNumbersTask(fibonnacis);
+            executor.execute(primes);
+            executor.execute(fibonnacis);
+            executor.execute(combined);
+            stop = () -> {
+                primes.taskComplete();
+                fibonnacis.taskComplete();
+                combined.taskComplete();
+            };
+            matches = combined::getSize;
+        }
+        else {
+            com.demo.folder.good_version.Pipeline pipeline = new com.demo.folder.good_version.Pipeline();
+            pipeline.start(executor);
+            stop = pipeline::stop;
+            matches = pipeline.getCombinedNumbersTask()::getSize;
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        stop.run();
+        executor.shutdown();
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peakHeap += pool.getPeakUsage().getUsed();
+        }
+        long direct = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) direct = pool.getMemoryUsed();
+        }
+
+        System.out.printf("%s_version, %d s, %d matches%n", version, seconds, matches.getAsInt());
+        System.out.printf("  peak heap      %,14d bytes%n", peakHeap);
+        System.out.printf("  direct buffers %,14d bytes%n", direct);
+        System.out.printf("  gc             %,14d collections, %,d ms total, %,d ms longest%n",
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore, maxPauseMillis.get());
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) count += gc.getCollectionCount();
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) millis += gc.getCollectionTime();
+        return millis;
+    }
+}
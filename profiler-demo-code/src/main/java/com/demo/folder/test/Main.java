@@ -1,42 +1,29 @@
 package com.demo.folder.test;
 
+import com.demo.folder.benchmark.CachedPrimalityBenchmark;
+import com.demo.folder.benchmark.LargePrimalityBenchmark;
+import com.demo.folder.benchmark.PrimalityBenchmark;
+import com.demo.folder.benchmark.SieveBenchmark;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
 public class Main {
     // MicroBenchMark -> Measuring the performance of a small piece of code
-    public Boolean isPrime1(Integer testNumber) {
-        for (int i = 2; i < testNumber; i++) {
-            if (testNumber % i == 0) return false;
-        }
-        return true;
-    }
-
-    public Boolean isPrime2(Integer testNumber) {
-        int maxToCheck = (int)Math.sqrt(testNumber);
-        for (int i = 2; i < maxToCheck; i++) {
-            if (testNumber % i == 0) return false;
-        }
-        return true;
-    }
-
-    public static void main(String[] args) throws InterruptedException {
-        Main main = new Main();
-
-        for (int i  = 1; i < 10000; i++) {
-            main.isPrime2(i);
-        }
-
-        Thread.sleep(2000);
-        System.out.println("Warm up finished, now measuring...");
-
-        // Start time
-        long start = System.currentTimeMillis();
-
-        for (int i = 1; i < 50000; i++) {
-            System.out.println(main.isPrime2(i));
-
-        }
-
-        // End time
-        long end = System.currentTimeMillis();
-        System.out.println("Time Taken: " + (end - start));
+    // Timing a loop by hand measures the interpreter, the JIT and println as much as the code itself,
+    // so this runs the primality strategies through JMH instead. Same as:
+    //   java -jar target/benchmarks.jar "PrimalityBenchmark|SieveBenchmark" -prof gc
+    // (which also picks up CachedPrimalityBenchmark, the same windows through a caching checker)
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PrimalityBenchmark.class.getSimpleName())
+                .include(LargePrimalityBenchmark.class.getSimpleName())
+                .include(SieveBenchmark.class.getSimpleName())
+                .include(CachedPrimalityBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
     }
 }
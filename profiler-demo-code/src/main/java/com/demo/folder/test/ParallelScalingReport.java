@@ -0,0 +1,47 @@
+package com.demo.folder.test;
+
+import com.demo.folder.benchmark.ParallelSieveBenchmark;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs ParallelSieveBenchmark at every parallelism from 1 to the number of cores and prints the speed-up
+ * and parallel efficiency against the single-threaded run.
+ */
+public class ParallelScalingReport {
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<String> parallelisms = new ArrayList<String>();
+        for (int i = 1; i <= cores; i++) parallelisms.add(Integer.toString(i));
+
+        Options options = new OptionsBuilder()
+                .include(ParallelSieveBenchmark.class.getSimpleName())
+                .param("parallelism", parallelisms.toArray(new String[0]))
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<Integer, Double> millis = new TreeMap<Integer, Double>();
+        for (RunResult result : results) {
+            millis.put(Integer.parseInt(result.getParams().getParam("parallelism")), result.getPrimaryResult().getScore());
+        }
+
+        double baseline = millis.get(1);
+        System.out.println();
+        System.out.println("Primes below " + ParallelSieveBenchmark.LIMIT + " on " + cores + " cores");
+        System.out.printf("%8s %12s %9s %11s%n", "threads", "ms", "speed-up", "efficiency");
+        for (Map.Entry<Integer, Double> entry : millis.entrySet()) {
+            double speedUp = baseline / entry.getValue();
+            System.out.printf("%8d %12.1f %8.2fx %10.0f%%%n", entry.getKey(), entry.getValue(), speedUp, 100 * speedUp / entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.demo.folder.test;
+
+import com.demo.folder.concurrent.ExecutionMode;
+import com.demo.folder.good_version.Pipeline;
+import com.demo.folder.primes.PrimeEngine;
+import com.demo.folder.primes.PrimeTable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a cold good_version run (segmented sieve from 2) against one that maps a prebuilt
+ * {@link PrimeTable}. Every run is a fresh JVM, so the times include JVM startup and nothing is
+ * carried over from a previous run except the OS page cache holding the table file.
+ */
+public class StartupComparison {
+
+    // every prime fibonnaci number below 2^30, the last being 433494437
+    private static final int MATCHES = 10;
+    private static final int ROUNDS = 3;
+    private static final String RUN = "--run=";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].startsWith(RUN)) {
+            runOnce(args[0].substring(RUN.length()));
+            return;
+        }
+
+        Path table = Paths.get(System.getProperty("java.io.tmpdir"), "primes-" + PrimeTable.DEFAULT_LIMIT + ".bin");
+        long buildStart = System.nanoTime();
+        PrimeTable.mapOrCreate(table, PrimeTable.DEFAULT_LIMIT);
+        System.out.printf("table: %s, %,d bytes, ready in %d ms%n", table, Files.size(table),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - buildStart));
+
+        System.out.printf("%-8s %16s %16s %16s%n", "", "first match ms", MATCHES + " matches ms", "process ms");
+        for (String mode : new String[] {"cold", "mapped"}) {
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                String result = child(mode.equals("cold") ? "" : table.toString());
+                long processMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                String[] times = result.split(" ");
+                System.out.printf("%-8s %16s %16s %16d%n", mode, times[0], times[1], processMillis);
+            }
+        }
+    }
+
+    private static String child(String table) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                StartupComparison.class.getName(), RUN + table).redirectErrorStream(true).start();
+        String last = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String line; (line = reader.readLine()) != null; ) last = line;
+        }
+        if (process.waitFor() != 0) throw new IllegalStateException("child run failed: " + last);
+        return last;
+    }
+
+    // prints the JVM uptime at the first and the last match, so both include JVM startup and mapping the table
+    private static void runOnce(String table) throws IOException, InterruptedException {
+        ExecutorService executor = ExecutionMode.PLATFORM.newExecutor(Pipeline.TASKS);
+        Pipeline pipeline = new Pipeline();
+        pipeline.getPrimeNumbersTask().setEngine(PrimeEngine.SEGMENTED_SIEVE);
+        if (!table.isEmpty()) pipeline.getPrimeNumbersTask().setPrimeTable(PrimeTable.map(new File(table).toPath()));
+        pipeline.start(executor);
+
+        pipeline.getCombinedNumbersTask().awaitSize(1, 1, TimeUnit.MINUTES);
+        long first = ManagementFactory.getRuntimeMXBean().getUptime();
+        int found = pipeline.getCombinedNumbersTask().awaitSize(MATCHES, 1, TimeUnit.MINUTES);
+        long last = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (found < MATCHES) throw new IllegalStateException("only found " + found);
+
+        pipeline.stop();
+        executor.shutdown();
+        System.out.println(first + " " + last);
+    }
+}
@@ -0,0 +1,26 @@
+package com.demo.folder.collections;
+
+import junit.framework.TestCase;
+
+public class LongArrayListTest extends TestCase
+{
+    public void testGrowsAndCopies()
+    {
+        LongArrayList list = new LongArrayList( 0 );
+        for ( long i = 0; i < 1000; i++ )
+        {
+            list.add( i * i );
+        }
+        assertEquals( 1000, list.size() );
+        assertEquals( 999L * 999L, list.last() );
+        assertEquals( 1000, list.toArray().length );
+        assertEquals( "[0, 1, 4]", toString( 3 ) );
+    }
+
+    private static String toString( int count )
+    {
+        LongArrayList list = new LongArrayList();
+        for ( long i = 0; i < count; i++ ) list.add( i * i );
+        return list.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.demo.folder.collections;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class LongHashSetTest extends TestCase
+{
+    public void testBehavesLikeHashSetUnderRandomOperations()
+    {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<Long>();
+        Random random = new Random( 42 );
+        for ( int i = 0; i < 200000; i++ )
+        {
+            // a small key range forces collisions, removals and re-additions, including of 0
+            long value = random.nextInt( 2000 ) - 1000;
+            switch ( random.nextInt( 3 ) )
+            {
+                case 0:
+                    assertEquals( expected.add( value ), set.add( value ) );
+                    break;
+                case 1:
+                    assertEquals( expected.remove( value ), set.remove( value ) );
+                    break;
+                default:
+                    assertEquals( expected.contains( value ), set.contains( value ) );
+            }
+            assertEquals( expected.size(), set.size() );
+        }
+        for ( long value = -1000; value < 1000; value++ )
+        {
+            assertEquals( expected.contains( value ), set.contains( value ) );
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.demo.folder.collections;
+
+import junit.framework.TestCase;
+
+public class OffHeapLongWindowTest extends TestCase
+{
+    public void testSlidesAndGrowsAcrossTheWrap()
+    {
+        OffHeapLongWindow window = new OffHeapLongWindow( 4 );
+        for ( long i = 0; i < 1000; i++ )
+        {
+            window.append( i * 3 );
+            // keep the window a few elements long so it wraps many times before growing
+            if ( i % 7 == 6 ) window.dropBelow( i * 3 - 6 );
+        }
+        // the last drop, at i = 993, kept 2973 and up
+        assertEquals( 2997, window.last() );
+        assertTrue( window.contains( 2973 ) );
+        assertTrue( window.contains( 2985 ) );
+        assertFalse( window.contains( 2970 ) );
+        assertFalse( window.contains( 2998 ) );
+        assertEquals( 9, window.size() );
+        // was only ever asked to hold a dozen values at once
+        assertTrue( window.capacity() <= 16 );
+    }
+
+    public void testRejectsValuesOutOfOrder()
+    {
+        OffHeapLongWindow window = new OffHeapLongWindow();
+        window.append( 5 );
+        window.append( 5 );
+        try
+        {
+            window.append( 4 );
+            fail();
+        }
+        catch ( IllegalArgumentException expected )
+        {
+        }
+    }
+}
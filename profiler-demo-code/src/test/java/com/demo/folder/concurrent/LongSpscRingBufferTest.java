@@ -0,0 +1,64 @@
+package com.demo.folder.concurrent;
+
+import junit.framework.TestCase;
+
+public class LongSpscRingBufferTest extends TestCase
+{
+    public void testOfferFailsWhenFullAndPollWhenEmpty()
+    {
+        LongSpscRingBuffer buffer = new LongSpscRingBuffer( 4 );
+        assertEquals( LongSpscRingBuffer.EMPTY, buffer.poll() );
+        for ( int i = 0; i < 4; i++ )
+        {
+            assertTrue( buffer.offer( i ) );
+        }
+        assertFalse( buffer.offer( 4 ) );
+        assertEquals( 4, buffer.size() );
+        assertEquals( 0, buffer.poll() );
+        assertTrue( buffer.offer( 4 ) );
+    }
+
+    public void testHandsOffEveryValueInOrderAcrossThreads() throws InterruptedException
+    {
+        final LongSpscRingBuffer buffer = new LongSpscRingBuffer( 1024 );
+        final long count = 200000;
+        Thread producer = new Thread( () -> {
+            for ( long i = 0; i < count; i++ )
+            {
+                while ( !buffer.offer( i ) ) Thread.yield();
+            }
+        } );
+        producer.start();
+
+        for ( long expected = 0; expected < count; )
+        {
+            long value = buffer.poll();
+            if ( value == LongSpscRingBuffer.EMPTY ) continue;
+            assertEquals( expected++, value );
+        }
+        producer.join();
+        assertTrue( buffer.isEmpty() );
+    }
+
+    public void testBlockingHandOffDrainsBeforeReportingClose() throws InterruptedException
+    {
+        final LongSpscRingBuffer buffer = new LongSpscRingBuffer( 8 );
+        final long count = 100000;
+        Thread producer = new Thread( () -> {
+            for ( long i = 0; i < count; i++ )
+            {
+                assertTrue( buffer.put( i ) );
+            }
+            buffer.close();
+        } );
+        producer.start();
+
+        for ( long expected = 0; expected < count; expected++ )
+        {
+            assertEquals( expected, buffer.take() );
+        }
+        assertEquals( LongSpscRingBuffer.EMPTY, buffer.take() );
+        producer.join();
+        assertFalse( buffer.put( 1 ) );
+    }
+}
@@ -0,0 +1,78 @@
+package com.demo.folder.good_version;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.demo.folder.collections.LongArrayList;
+import com.demo.folder.sequence.SquareSequence;
+import com.demo.folder.sequence.TriangularSequence;
+
+import junit.framework.TestCase;
+
+public class CombinedNumbersTaskTest extends TestCase
+{
+    // square triangular numbers below 10^12
+    private static final String MATCHES = "[0, 1, 36, 1225, 41616, 1413721, 48024900, 1631432881, 55420693056]";
+
+    public void testListenersSeeEachMatchOnceWheneverTheyRegister() throws Exception
+    {
+        CombinedNumbersTask task = new CombinedNumbersTask();
+        task.setSources( new SquareSequence().upTo( 1000000000000L ), new TriangularSequence() );
+
+        Recorder early = new Recorder();
+        task.addListener( early );
+        Thread worker = new Thread( task );
+        worker.start();
+        // registers somewhere during the run, so part of its first delivery was found before it subscribed
+        Recorder late = new Recorder();
+        task.addListener( late );
+
+        assertTrue( early.finished.await( 1, TimeUnit.MINUTES ) );
+        assertTrue( late.finished.await( 1, TimeUnit.MINUTES ) );
+        worker.join();
+        assertEquals( MATCHES, early.seen.toString() );
+        assertEquals( MATCHES, late.seen.toString() );
+        assertEquals( MATCHES, task.getSnapshot().toString() );
+
+        Recorder afterwards = new Recorder();
+        task.addListener( afterwards );
+        assertEquals( 0, afterwards.finished.getCount() );
+        assertEquals( MATCHES, afterwards.seen.toString() );
+    }
+
+    public void testSnapshotDelta()
+    {
+        MatchSnapshot snapshot = new MatchSnapshot( new long[] { 2, 3, 5 } );
+        assertEquals( 3, snapshot.version() );
+        assertEquals( 2, snapshot.since( 1 ).length );
+        assertEquals( 0, snapshot.since( 3 ).length );
+        try
+        {
+            snapshot.since( 4 );
+            fail();
+        }
+        catch ( IllegalArgumentException expected )
+        {
+        }
+    }
+
+    private static class Recorder implements MatchListener
+    {
+        final LongArrayList seen = new LongArrayList();
+        final CountDownLatch finished = new CountDownLatch( 1 );
+
+        @Override
+        public void matchesAdded( MatchSnapshot snapshot, long[] added )
+        {
+            for ( long match : added ) seen.add( match );
+            assertEquals( snapshot.size(), seen.size() );
+        }
+
+        @Override
+        public void finished( MatchSnapshot snapshot )
+        {
+            assertEquals( "finished twice", 1, finished.getCount() );
+            finished.countDown();
+        }
+    }
+}
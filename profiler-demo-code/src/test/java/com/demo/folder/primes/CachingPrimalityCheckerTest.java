@@ -0,0 +1,70 @@
+package com.demo.folder.primes;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class CachingPrimalityCheckerTest extends TestCase
+{
+    private final MillerRabinChecker reference = new MillerRabinChecker();
+
+    public void testAgreesWithTheDelegateAndCountsHits()
+    {
+        CachingPrimalityChecker cache = new CachingPrimalityChecker( reference, 1 << 16, 1024, 4 );
+        for ( int pass = 0; pass < 2; pass++ )
+        {
+            for ( long n = -5; n < 70000; n++ )
+            {
+                assertEquals( "n = " + n, reference.isPrime( n ), cache.isPrime( n ) );
+            }
+        }
+        // only odd numbers from 3 up get cached, the ones past the bitmap go to the lru and mostly don't fit
+        long odd = 34999; // 3, 5, ..., 69999
+        assertEquals( 2 * odd, cache.getHits() + cache.getMisses() );
+        assertTrue( cache.getHits() >= ( ( 1 << 16 ) - 3 ) / 2 );
+        assertEquals( 1024, cache.getLruSize() );
+        assertTrue( cache.getEvictions() > 0 );
+    }
+
+    public void testEvictsTheLeastRecentlyUsed()
+    {
+        CachingPrimalityChecker cache = new CachingPrimalityChecker( reference, 0, 4, 1 );
+        for ( long n : new long[] { 101, 103, 105, 107 } ) cache.isPrime( n );
+        // touching 101 makes 103 the oldest, so 109 pushes that out
+        cache.isPrime( 101 );
+        cache.isPrime( 109 );
+        long misses = cache.getMisses();
+        cache.isPrime( 101 );
+        cache.isPrime( 105 );
+        cache.isPrime( 107 );
+        cache.isPrime( 109 );
+        assertEquals( misses, cache.getMisses() );
+        cache.isPrime( 103 );
+        assertEquals( misses + 1, cache.getMisses() );
+        assertEquals( 2, cache.getEvictions() );
+    }
+
+    public void testSharedBetweenThreads() throws InterruptedException
+    {
+        CachingPrimalityChecker cache = new CachingPrimalityChecker( reference, 1 << 12, 512, 8 );
+        AtomicInteger wrong = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for ( int t = 0; t < threads.length; t++ )
+        {
+            final long seed = t;
+            threads[t] = new Thread( () -> {
+                Random random = new Random( seed );
+                for ( int i = 0; i < 200000; i++ )
+                {
+                    long n = random.nextInt( 20000 );
+                    if ( cache.isPrime( n ) != reference.isPrime( n ) ) wrong.incrementAndGet();
+                }
+            } );
+            threads[t].start();
+        }
+        for ( Thread thread : threads ) thread.join();
+        assertEquals( 0, wrong.get() );
+        assertEquals( 512, cache.getLruSize() );
+    }
+}
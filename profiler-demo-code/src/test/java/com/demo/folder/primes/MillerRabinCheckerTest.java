@@ -0,0 +1,83 @@
+package com.demo.folder.primes;
+
+import java.math.BigInteger;
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class MillerRabinCheckerTest extends TestCase
+{
+    private final MillerRabinChecker checker = new MillerRabinChecker();
+
+    public void testAgreesWithTheSieveAroundTheBitmapLimit()
+    {
+        long end = MillerRabinChecker.SMALL_LIMIT + 200000;
+        PrimitiveIterator.OfLong primes = new SegmentedSieve().iterator();
+        long nextPrime = primes.nextLong();
+        for ( long n = 0; n < end; n++ )
+        {
+            if ( n > nextPrime ) nextPrime = primes.nextLong();
+            assertEquals( "n = " + n, n == nextPrime, checker.isPrime( n ) );
+        }
+    }
+
+    public void testStrongPseudoprimesAndLargePrimes()
+    {
+        // strong pseudoprimes to the first few prime bases, and Carmichael numbers
+        assertFalse( checker.isPrime( 3215031751L ) );
+        assertFalse( checker.isPrime( 2152302898747L ) );
+        assertFalse( checker.isPrime( 3825123056546413051L ) );
+        assertFalse( checker.isPrime( 561L * 1105L * 1729L ) );
+        assertFalse( checker.isPrime( Long.MAX_VALUE ) );
+        assertTrue( checker.isPrime( 2305843009213693951L ) );
+        assertTrue( checker.isPrime( 9223372036854775783L ) );
+    }
+
+    public void testAgreesWithBigIntegerOnRandomLongs()
+    {
+        Random random = new Random( 7 );
+        for ( int i = 0; i < 20000; i++ )
+        {
+            long n = random.nextLong() >>> ( 1 + random.nextInt( 40 ) );
+            assertEquals( "n = " + n, BigInteger.valueOf( n ).isProbablePrime( 60 ), checker.isPrime( n ) );
+        }
+    }
+
+    public void testCheckAllAgreesWithIsPrime()
+    {
+        Random random = new Random( 3 );
+        long[] block = new long[4096];
+        for ( int i = 0; i < block.length; i++ )
+        {
+            // small, around the bitmap limit, large, and a few negatives
+            switch ( i % 4 )
+            {
+                case 0: block[i] = random.nextInt( 100 ) - 10; break;
+                case 1: block[i] = MillerRabinChecker.SMALL_LIMIT - 2048 + i; break;
+                default: block[i] = random.nextLong() >>> ( 1 + random.nextInt( 40 ) ); break;
+            }
+        }
+        BitSet primes = new BitSet();
+        primes.set( 0, block.length );
+        checker.checkAll( block, primes );
+        for ( int i = 0; i < block.length; i++ )
+        {
+            assertEquals( "n = " + block[i], checker.isPrime( block[i] ), primes.get( i ) );
+        }
+    }
+
+    public void testUnsignedMultiplyHigh()
+    {
+        Random random = new Random( 11 );
+        BigInteger mask = BigInteger.ONE.shiftLeft( 64 ).subtract( BigInteger.ONE );
+        for ( int i = 0; i < 10000; i++ )
+        {
+            long x = random.nextLong();
+            long y = random.nextLong();
+            BigInteger product = new BigInteger( Long.toUnsignedString( x ) ).multiply( new BigInteger( Long.toUnsignedString( y ) ) );
+            assertEquals( product.shiftRight( 64 ).and( mask ).longValue(), MillerRabinChecker.unsignedMultiplyHigh( x, y ) );
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.demo.folder.primes;
+
+import java.util.PrimitiveIterator;
+
+import junit.framework.TestCase;
+
+public class ParallelPrimeGeneratorTest extends TestCase
+{
+    public void testEmitsExactlyTheSequentialSieveInOrder()
+    {
+        final PrimitiveIterator.OfLong sequential = new SegmentedSieve().iterator();
+        final long[] mismatch = { -1 };
+        try ( ParallelPrimeGenerator generator = new ParallelPrimeGenerator( 3, 256 ) )
+        {
+            while ( generator.upperBound() < 3000000 )
+            {
+                generator.nextBatch( prime -> {
+                    if ( mismatch[0] < 0 && sequential.nextLong() != prime ) mismatch[0] = prime;
+                } );
+            }
+        }
+        assertEquals( -1, mismatch[0] );
+    }
+
+    public void testStartsAtFirstPrimeNotBelowStart()
+    {
+        final PrimitiveIterator.OfLong sequential = new SegmentedSieve( 999990, 64 ).iterator();
+        final long[] mismatch = { -1 };
+        try ( ParallelPrimeGenerator generator = new ParallelPrimeGenerator( 2, 64, 999990 ) )
+        {
+            generator.nextBatch( prime -> {
+                if ( mismatch[0] < 0 && sequential.nextLong() != prime ) mismatch[0] = prime;
+            } );
+        }
+        assertEquals( -1, mismatch[0] );
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.folder.primes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.PrimitiveIterator;
+
+import junit.framework.TestCase;
+
+public class PrimeTableTest extends TestCase
+{
+    private Path directory;
+
+    protected void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "prime-table" );
+    }
+
+    protected void tearDown() throws IOException
+    {
+        Files.deleteIfExists( directory.resolve( "primes.bin" ) );
+        Files.deleteIfExists( directory );
+    }
+
+    public void testAgreesWithSieveAndResumesFromLimit() throws IOException
+    {
+        PrimeTable table = PrimeTable.create( directory.resolve( "primes.bin" ), 100003 );
+        assertEquals( 100003, table.limit() );
+
+        PrimitiveIterator.OfLong sieve = new SegmentedSieve( 64 ).iterator();
+        long prime = sieve.nextLong();
+        for ( long n = 0; n < 100100; n++ )
+        {
+            // the same answers either side of the limit, where lookups hand over to Miller-Rabin
+            assertEquals( "n = " + n, n == prime, table.isPrime( n ) );
+            if ( n == prime ) prime = sieve.nextLong();
+        }
+    }
+
+    public void testForEachPrimeHonoursRangeEnds() throws IOException
+    {
+        PrimeTable table = PrimeTable.create( directory.resolve( "primes.bin" ), 1000 );
+        for ( long from = 0; from < 140; from += 7 )
+        {
+            for ( long to = from; to < 1010; to += 13 )
+            {
+                final long[] previous = { from - 1 };
+                final int[] seen = { 0 };
+                final long start = from;
+                final long end = to;
+                int count = table.forEachPrime( from, to, p -> {
+                    for ( long n = previous[0] + 1; n < p; n++ ) assertFalse( table.isPrime( n ) );
+                    assertTrue( p >= start && p < Math.min( end, 1000 ) && table.isPrime( p ) );
+                    previous[0] = p;
+                    seen[0]++;
+                } );
+                for ( long n = previous[0] + 1; n < Math.min( to, 1000 ); n++ ) assertFalse( table.isPrime( n ) );
+                assertEquals( seen[0], count );
+            }
+        }
+    }
+
+    public void testRejectsFileThatIsNotATable() throws IOException
+    {
+        Path file = directory.resolve( "primes.bin" );
+        Files.write( file, new byte[64] );
+        try
+        {
+            PrimeTable.map( file );
+            fail();
+        }
+        catch ( IOException expected )
+        {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.demo.folder.primes;
+
+import java.util.PrimitiveIterator;
+
+import junit.framework.TestCase;
+
+public class SegmentedSieveTest extends TestCase
+{
+    private static boolean isPrime( long n )
+    {
+        if ( n < 2 ) return false;
+        for ( long i = 2; i * i <= n; i++ )
+        {
+            if ( n % i == 0 ) return false;
+        }
+        return true;
+    }
+
+    public void testMatchesTrialDivisionAcrossSegmentBoundaries()
+    {
+        // 64 byte segments only cover 1024 numbers, so this crosses hundreds of boundaries
+        PrimitiveIterator.OfLong primes = new SegmentedSieve( 64 ).iterator();
+        long expected = 2;
+        while ( expected < 300000 )
+        {
+            assertEquals( expected, primes.nextLong() );
+            do { expected++; } while ( !isPrime( expected ) );
+        }
+    }
+
+    public void testUpperBoundCoversEveryEmittedPrime()
+    {
+        SegmentedSieve sieve = new SegmentedSieve();
+        final long[] last = new long[1];
+        int count = sieve.nextSegment( prime -> last[0] = prime );
+        assertTrue( last[0] < sieve.upperBound() );
+        // pi(524289) = 43390
+        assertEquals( 43390, count );
+    }
+
+    public void testStartsAtFirstPrimeNotBelowStart()
+    {
+        for ( long start : new long[] { 0, 2, 3, 4, 9, 1000, 999983, 1000000 } )
+        {
+            PrimitiveIterator.OfLong primes = new SegmentedSieve( start, 64 ).iterator();
+            long expected = start;
+            for ( int i = 0; i < 500; i++ )
+            {
+                while ( !isPrime( expected ) ) expected++;
+                assertEquals( expected, primes.nextLong() );
+                expected++;
+            }
+        }
+    }
+}
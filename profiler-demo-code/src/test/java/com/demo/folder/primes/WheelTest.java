@@ -0,0 +1,43 @@
+package com.demo.folder.primes;
+
+import java.util.PrimitiveIterator;
+
+import junit.framework.TestCase;
+
+public class WheelTest extends TestCase
+{
+    public void testCandidatesAreTheSmallPrimesAndEverythingCoprime()
+    {
+        for ( Wheel wheel : Wheel.values() )
+        {
+            for ( long start : new long[] { 0, 2, 6, 7, 29, 30, 211, 1000003 } )
+            {
+                PrimitiveIterator.OfLong candidates = wheel.candidates( start );
+                long expected = Math.max( start, 2 );
+                for ( int i = 0; i < 1000; i++ )
+                {
+                    while ( !isCandidate( wheel, expected ) ) expected++;
+                    assertEquals( wheel + " from " + start, expected, candidates.nextLong() );
+                    expected++;
+                }
+            }
+        }
+    }
+
+    public void testDensity()
+    {
+        assertEquals( 1.0, Wheel.NONE.density() );
+        assertEquals( 8.0 / 30, Wheel.MOD_30.density() );
+        assertEquals( 48.0 / 210, Wheel.MOD_210.density() );
+    }
+
+    private static boolean isCandidate( Wheel wheel, long n )
+    {
+        for ( long p : new long[] { 2, 3, 5, 7 } )
+        {
+            if ( wheel.modulus() % p != 0 ) continue;
+            if ( n % p == 0 ) return n == p;
+        }
+        return true;
+    }
+}
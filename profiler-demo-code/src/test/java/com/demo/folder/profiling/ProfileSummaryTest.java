@@ -0,0 +1,56 @@
+package com.demo.folder.profiling;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.demo.folder.concurrent.LongSpscRingBuffer;
+
+import jdk.jfr.Recording;
+import junit.framework.TestCase;
+
+public class ProfileSummaryTest extends TestCase
+{
+    public void testCountsTheDemoEvents() throws Exception
+    {
+        Path file = Files.createTempFile( "profile-summary", ".jfr" );
+        try
+        {
+            try ( Recording recording = new Recording() )
+            {
+                recording.enable( PrimeFoundEvent.class );
+                recording.enable( MatchFoundEvent.class );
+                recording.enable( QueueFullEvent.class );
+                recording.start();
+
+                PrimeFoundEvent.emit( 7, 4 );
+                PrimeFoundEvent.emit( 13, 2 );
+                MatchFoundEvent.emit( 13 );
+
+                LongSpscRingBuffer buffer = new LongSpscRingBuffer( 2 );
+                assertTrue( QueueFullEvent.put( buffer, "test", 1 ) );
+                assertTrue( QueueFullEvent.put( buffer, "test", 2 ) );
+                // full now, so this one parks until the buffer is closed
+                Thread closer = new Thread( () -> {
+                    try { Thread.sleep( 50 ); } catch ( InterruptedException e ) { }
+                    buffer.close();
+                } );
+                closer.start();
+                assertFalse( QueueFullEvent.put( buffer, "test", 3 ) );
+                closer.join();
+
+                recording.stop();
+                recording.dump( file );
+            }
+
+            ProfileSummary summary = ProfileSummary.read( file );
+            assertEquals( 6, summary.getPrimesFound() );
+            assertEquals( 13, summary.getLargestPrime() );
+            assertEquals( 1, summary.getMatchesFound() );
+            assertEquals( 1, summary.getQueueFullCount() );
+        }
+        finally
+        {
+            Files.delete( file );
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.demo.folder.runner;
+
+import junit.framework.TestCase;
+
+public class JsonWriterTest extends TestCase
+{
+    public void testCommasBetweenMembersAndElements()
+    {
+        JsonWriter json = new JsonWriter();
+        json.beginObject();
+        json.name( "a" ).value( 1 );
+        json.name( "b" ).beginArray().value( true ).nullValue().beginObject().endObject().endArray();
+        json.name( "c" ).value( "x" );
+        json.endObject();
+        assertEquals( "{\"a\":1,\"b\":[true,null,{}],\"c\":\"x\"}", json.toString() );
+    }
+
+    public void testStringsAreEscaped()
+    {
+        JsonWriter json = new JsonWriter();
+        json.beginArray().value( "say \"hi\"\\" ).value( "tab\tline\n" ).value( (String) null ).endArray();
+        assertEquals( "[\"say \\\"hi\\\"\\\\\",\"tab\\u0009line\\u000a\",null]", json.toString() );
+    }
+
+    public void testDoublesAreRoundedAndNonFiniteBecomesNull()
+    {
+        JsonWriter json = new JsonWriter();
+        json.beginArray().value( 1.23456 ).value( Double.NaN ).value( Double.POSITIVE_INFINITY ).endArray();
+        assertEquals( "[1.235,null,null]", json.toString() );
+    }
+}
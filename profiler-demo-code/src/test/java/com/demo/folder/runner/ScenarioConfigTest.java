@@ -0,0 +1,72 @@
+package com.demo.folder.runner;
+
+import java.io.IOException;
+
+import com.demo.folder.primes.PrimeEngine;
+import com.demo.folder.primes.Wheel;
+
+import junit.framework.TestCase;
+
+public class ScenarioConfigTest extends TestCase
+{
+    public void testDefaults() throws IOException
+    {
+        ScenarioConfig config = ScenarioConfig.fromArgs( new String[0] );
+        assertEquals( "good", config.getVersion() );
+        assertEquals( ScenarioConfig.DEFAULT_TARGET, config.getTarget() );
+        assertEquals( PrimeEngine.TRIAL_DIVISION, config.getEngine() );
+        assertEquals( Wheel.NONE, config.getWheel() );
+        assertNull( config.getPrimeTable() );
+        assertNull( config.getJsonFile() );
+    }
+
+    public void testParsesRunnerAndMainSwitches() throws IOException
+    {
+        ScenarioConfig config = ScenarioConfig.fromArgs( new String[] { "--version=good", "--target=5", "--warmup=0",
+                "--iterations=2", "--timeout=9", "--prime-buffer=64", "--engine=mr", "--wheel=30", "--json=out.json" } );
+        assertEquals( 5, config.getTarget() );
+        assertEquals( 0, config.getWarmupIterations() );
+        assertEquals( 2, config.getMeasurementIterations() );
+        assertEquals( 9, config.getTimeoutSeconds() );
+        assertEquals( 64, config.getPrimeBufferSize() );
+        assertEquals( PrimeEngine.MILLER_RABIN, config.getEngine() );
+        assertEquals( Wheel.MOD_30, config.getWheel() );
+        assertEquals( "out.json", config.getJsonFile() );
+    }
+
+    public void testRejectsGoodOnlySwitchesForBadVersion() throws IOException
+    {
+        for ( String arg : new String[] { "--wheel=30", "--prime-table=primes.bin", "--prime-buffer=64", "--fibonnaci-buffer=64" } )
+        {
+            try
+            {
+                ScenarioConfig.fromArgs( new String[] { "--version=bad", arg } );
+                fail( arg + " should be rejected for the bad version" );
+            }
+            catch ( IllegalArgumentException expected )
+            {
+            }
+        }
+    }
+
+    public void testBadConfigOnlyRecordsWhatItApplies() throws IOException
+    {
+        JsonWriter json = new JsonWriter();
+        ScenarioConfig.fromArgs( new String[] { "--version=bad" } ).writeTo( json );
+        assertTrue( json.toString().contains( "\"version\":\"bad\"" ) );
+        assertFalse( json.toString().contains( "wheel" ) );
+        assertFalse( json.toString().contains( "primeBufferSize" ) );
+    }
+
+    public void testRejectsUnknownVersion() throws IOException
+    {
+        try
+        {
+            ScenarioConfig.fromArgs( new String[] { "--version=ugly" } );
+            fail();
+        }
+        catch ( IllegalArgumentException expected )
+        {
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.demo.folder.sequence;
+
+import java.math.BigInteger;
+
+import junit.framework.TestCase;
+
+public class FibonnaciSequenceTest extends TestCase
+{
+    public void testStreamCrossesFromLongToBigIntegerWithoutOverflow()
+    {
+        FibonnaciSequence sequence = new FibonnaciSequence();
+        BigInteger a = BigInteger.ZERO;
+        BigInteger b = BigInteger.ONE;
+        for ( int i = 0; i < 300; i++ )
+        {
+            assertEquals( "F(" + i + ")", a, sequence.next() );
+            assertEquals( a, FibonnaciSequence.fib( i ) );
+            BigInteger c = a.add( b );
+            a = b;
+            b = c;
+        }
+        assertFalse( sequence.hasNextLong() );
+    }
+
+    public void testLongRangeEndsAtF92()
+    {
+        FibonnaciSequence sequence = new FibonnaciSequence();
+        long last = 0;
+        while ( sequence.hasNextLong() ) last = sequence.nextLong();
+        assertEquals( 7540113804746346429L, last );
+        try
+        {
+            sequence.nextLong();
+            fail( "F(93) does not fit in a long" );
+        }
+        catch ( ArithmeticException expected )
+        {
+        }
+    }
+
+    public void testSkipToJumpsAhead()
+    {
+        FibonnaciSequence sequence = new FibonnaciSequence();
+        sequence.skipTo( 1000 );
+        BigInteger f1000 = sequence.next();
+        BigInteger f1001 = sequence.next();
+        assertEquals( FibonnaciSequence.fib( 1002 ), f1000.add( f1001 ) );
+        assertEquals( FibonnaciSequence.fib( 1002 ), sequence.next() );
+        assertTrue( f1000.toString().startsWith( "43466557686937456435688527675040625802564660517371780402481729" ) );
+    }
+}
@@ -0,0 +1,52 @@
+package com.demo.folder.sequence;
+
+import com.demo.folder.collections.LongArrayList;
+
+import junit.framework.TestCase;
+
+public class KWayIntersectionTest extends TestCase
+{
+    private static String join( SequenceGenerator... sources )
+    {
+        KWayIntersection intersection = new KWayIntersection( sources );
+        LongArrayList matches = new LongArrayList();
+        for ( long term; ( term = intersection.nextTerm() ) != SequenceGenerator.END; ) matches.add( term );
+        return matches.toString();
+    }
+
+    public void testPrimeFibonnaciNumbers()
+    {
+        assertEquals( "[2, 3, 5, 13, 89, 233, 1597, 28657, 514229]",
+                      join( new PrimeSequence().upTo( 1000000 ), new FibonnaciSequence() ) );
+    }
+
+    public void testRepeatedTermIsReportedOnce()
+    {
+        // F(1) = F(2) = 1
+        assertEquals( "[1, 3]", join( new FibonnaciSequence(), new LucasSequence().upTo( 100000 ) ) );
+    }
+
+    public void testThreeWayJoinOfSquaresTriangularAndFibonnaci()
+    {
+        // square triangular numbers are 0, 1, 36, 1225, 41616, ... and only 0 and 1 are also fibonnaci
+        assertEquals( "[0, 1, 36, 1225, 41616, 1413721]",
+                      join( new SquareSequence().upTo( 2000000 ), new TriangularSequence() ) );
+        assertEquals( "[0, 1]",
+                      join( new SquareSequence().upTo( 2000000 ), new TriangularSequence(), new FibonnaciSequence() ) );
+    }
+
+    public void testRecurrencesStopBeforeOverflow()
+    {
+        // squares and triangular numbers take billions of terms to get there
+        for ( NumberSequence sequence : new NumberSequence[] { NumberSequence.FIBONNACI, NumberSequence.LUCAS } )
+        {
+            SequenceGenerator generator = sequence.newGenerator();
+            long previous = -1;
+            for ( long term; ( term = generator.nextTerm() ) != SequenceGenerator.END; previous = term )
+            {
+                assertTrue( sequence + " went down at " + term, term >= previous );
+            }
+            assertTrue( sequence + " ended at " + previous, previous > Long.MAX_VALUE / 4 );
+        }
+    }
+}